@@ -0,0 +1,73 @@
+package benchmark;
+
+import model.Converter;
+import model.IndexedInput;
+import model.OverlapPartitioner;
+import model.ProgramInput;
+import model.ReachabilityMatrix;
+import model.SolverInput;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading and converting the program input, from the json file up to the split solver input.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConverterBenchmark {
+    @Param({"1000", "10000"})
+    public int mutants;
+
+    @Param({"500", "5000"})
+    public int tests;
+
+    @Param({"0.002", "0.02"})
+    public double density;
+
+    @Param({"150"})
+    public int splitSize;
+
+    private ProgramInput programInput;
+    private IndexedInput indexedInput;
+    private File inputFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        programInput = SyntheticInput.generate(mutants, tests, density);
+        indexedInput = Converter.toIndexedInput(programInput);
+        inputFile = SyntheticInput.write(programInput);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        inputFile.delete();
+    }
+
+    @Benchmark
+    public IndexedInput readIndexedInput() throws IOException {
+        return Converter.readIndexedInput(inputFile);
+    }
+
+    @Benchmark
+    public ReachabilityMatrix toReachabilityMatrix() {
+        return Converter.toReachabilityMatrix(programInput.mutants);
+    }
+
+    @Benchmark
+    public int[][] overlapPartition() {
+        return new OverlapPartitioner().partition(indexedInput, splitSize);
+    }
+
+    @Benchmark
+    public List<SolverInput> toSplitSolverInput() {
+        return Converter.toSplitSolverInput(indexedInput, splitSize);
+    }
+}
@@ -0,0 +1,58 @@
+package benchmark;
+
+import model.Converter;
+import model.IndexedInput;
+import model.TimedSolverResult;
+import org.openjdk.jmh.annotations.*;
+import solver.ComponentSolver;
+import solver.CpModelSolver;
+import solver.DsaturSolver;
+import solver.Solver;
+import solver.SplitSolver;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * End-to-end run of the {@link SplitSolver} on a fixed seed, including conversion and partitioning. Solvers run on a
+ * single core with a single worker so the measurement is reproducible between machines with a different core count.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SplitSolverBenchmark {
+    @Param({"1500"})
+    public int mutants;
+
+    @Param({"1000"})
+    public int tests;
+
+    @Param({"0.005"})
+    public double density;
+
+    @Param({"150"})
+    public int splitSize;
+
+    @Param({"cp", "dsatur"})
+    public String solver;
+
+    private IndexedInput input;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        input = Converter.toIndexedInput(SyntheticInput.generate(mutants, tests, density));
+    }
+
+    @Benchmark
+    public TimedSolverResult solve() {
+        IntFunction<Solver> factory = switch (solver) {
+            case "cp" -> workers -> new ComponentSolver(new CpModelSolver(workers));
+            case "dsatur" -> workers -> new ComponentSolver(new DsaturSolver());
+            default -> throw new RuntimeException(String.format("Unknown solver '%s'", solver));
+        };
+        return new SplitSolver(factory, 1, 1).solve(Converter.toSplitSolverInput(input, splitSize));
+    }
+}
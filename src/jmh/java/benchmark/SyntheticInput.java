@@ -0,0 +1,61 @@
+package benchmark;
+
+import com.google.gson.Gson;
+import model.Mutant;
+import model.ProgramInput;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Generates reproducible inputs for the benchmarks. Every mutant reaches a uniformly random number of distinct tests
+ * between 0 and {@code 2 * density * tests}, so on average it reaches a {@code density} fraction of the test suite.
+ */
+public class SyntheticInput {
+    public static final long SEED = 42;
+
+    public static ProgramInput generate(int mutants, int tests, double density) {
+        return generate(mutants, tests, density, SEED);
+    }
+
+    public static ProgramInput generate(int mutants, int tests, double density, long seed) {
+        var random = new Random(seed);
+        int maxTestsPerMutant = Math.min(tests, (int) Math.round(2 * density * tests));
+        int[] pool = new int[tests];
+        for (int t = 0; t < tests; t++) {
+            pool[t] = t;
+        }
+
+        var input = new ProgramInput();
+        input.mutants = new Mutant[mutants];
+        for (int m = 0; m < mutants; m++) {
+            int count = random.nextInt(maxTestsPerMutant + 1);
+            String[] reached = new String[count];
+            // partial Fisher-Yates shuffle picks distinct tests
+            for (int i = 0; i < count; i++) {
+                int j = i + random.nextInt(tests - i);
+                int swap = pool[i];
+                pool[i] = pool[j];
+                pool[j] = swap;
+                reached[i] = testName(pool[i]);
+            }
+            input.mutants[m] = new Mutant(Integer.toString(m), reached);
+        }
+        return input;
+    }
+
+    public static File write(ProgramInput input) throws IOException {
+        var file = File.createTempFile("synthetic-mutants", ".json");
+        file.deleteOnExit();
+        try (var writer = new FileWriter(file)) {
+            new Gson().toJson(input, writer);
+        }
+        return file;
+    }
+
+    private static String testName(int test) {
+        return "module.spec.SomeComponent should behave correctly when scenario number " + test + " is exercised";
+    }
+}
@@ -0,0 +1,142 @@
+package solver;
+
+import benchmark.SyntheticInput;
+import model.Converter;
+import model.SolverInput;
+import model.SolverMetrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures every {@link ASolver} phase on its own. A fresh solver is prepared before each invocation and run up to
+ * the phase under measurement, so only that phase is timed. Lives in the solver package to reach the protected phases.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverPhaseBenchmark {
+    @Param({"50", "150"})
+    public int mutants;
+
+    @Param({"100", "1000"})
+    public int tests;
+
+    @Param({"0.01", "0.05"})
+    public double density;
+
+    @Param({"cp", "dsatur"})
+    public String solver;
+
+    private SolverInput input;
+    private ASolver instance;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        input = Converter.toSolverInput(SyntheticInput.generate(mutants, tests, density));
+    }
+
+    private ASolver create() {
+        ASolver result = switch (solver) {
+            case "cp" -> new CpModelSolver(1);
+            case "dsatur" -> new DsaturSolver();
+            default -> throw new RuntimeException(String.format("Unknown solver '%s'", solver));
+        };
+        result.input = input;
+        result.metrics = new SolverMetrics();
+        return result;
+    }
+
+    @State(Scope.Thread)
+    public static class BeforeAxioms {
+        ASolver solver;
+
+        @Setup(Level.Invocation)
+        public void setup(SolverPhaseBenchmark benchmark) {
+            solver = benchmark.create();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BeforeVariables {
+        ASolver solver;
+
+        @Setup(Level.Invocation)
+        public void setup(SolverPhaseBenchmark benchmark) {
+            solver = benchmark.create();
+            solver.setupAxioms();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BeforeConstraints {
+        ASolver solver;
+
+        @Setup(Level.Invocation)
+        public void setup(SolverPhaseBenchmark benchmark) {
+            solver = benchmark.create();
+            solver.setupAxioms();
+            solver.setupVariables();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BeforeObjective {
+        ASolver solver;
+
+        @Setup(Level.Invocation)
+        public void setup(SolverPhaseBenchmark benchmark) {
+            solver = benchmark.create();
+            solver.setupAxioms();
+            solver.setupVariables();
+            solver.setupConstraints();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BeforeSolve {
+        ASolver solver;
+
+        @Setup(Level.Invocation)
+        public void setup(SolverPhaseBenchmark benchmark) {
+            solver = benchmark.create();
+            solver.setupAxioms();
+            solver.setupVariables();
+            solver.setupConstraints();
+            solver.createObjective();
+        }
+    }
+
+    @Benchmark
+    public ASolver setupAxioms(BeforeAxioms state) {
+        state.solver.setupAxioms();
+        return state.solver;
+    }
+
+    @Benchmark
+    public ASolver setupVariables(BeforeVariables state) {
+        state.solver.setupVariables();
+        return state.solver;
+    }
+
+    @Benchmark
+    public ASolver setupConstraints(BeforeConstraints state) {
+        state.solver.setupConstraints();
+        return state.solver;
+    }
+
+    @Benchmark
+    public ASolver createObjective(BeforeObjective state) {
+        state.solver.createObjective();
+        return state.solver;
+    }
+
+    @Benchmark
+    public ASolver solve(BeforeSolve state) {
+        state.solver.solve();
+        return state.solver;
+    }
+}
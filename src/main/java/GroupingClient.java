@@ -0,0 +1,78 @@
+import com.google.gson.Gson;
+import model.ProgramOutput;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Thin client that hands a job to a running {@link GroupingServer} with {@code --connect=[host:]port}, the command
+ * line is otherwise unchanged. Paths are made absolute because the server resolves them against its own working
+ * directory.
+ */
+public class GroupingClient {
+    private static final Set<String> PATH_OPTIONS = Set.of("previous", "cache", "metrics");
+    private static final int PATH_ARGUMENTS = 2;
+
+    /**
+     * Returns false when no server is listening, the caller then groups in-process.
+     */
+    public static boolean submit(String address, String[] args) throws IOException {
+        var uri = URI.create("http://" + (address.contains(":") ? address : "localhost:" + address) + "/group");
+        var request = HttpRequest.newBuilder(uri)
+                .POST(HttpRequest.BodyPublishers.ofString(new Gson().toJson(serverArguments(args))))
+                .header("Content-Type", "application/json")
+                .build();
+
+        HttpResponse<String> response;
+        try {
+            response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (ConnectException e) {
+            System.out.printf("No grouping server at %s, grouping in-process%n", address);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the grouping server", e);
+        }
+        if (response.statusCode() != 200) {
+            throw new RuntimeException(String.format("Grouping server failed (%s): %s", response.statusCode(), response.body()));
+        }
+
+        var output = new Gson().fromJson(response.body(), ProgramOutput.class);
+        System.out.println("Status " + output.solverResult.status);
+        if (output.solverResult.solution != null) {
+            System.out.println("Total number of groups formed: " + output.solverResult.solution.getGroups().size());
+        }
+        System.out.println(output.timer);
+        return true;
+    }
+
+    private static String[] serverArguments(String[] args) {
+        List<String> result = new ArrayList<>();
+        int position = 0;
+        for (var arg : args) {
+            if (arg == null || !arg.startsWith("--")) {
+                result.add(position++ < PATH_ARGUMENTS && arg != null ? absolute(arg) : arg);
+            } else if (!arg.startsWith("--connect=")) {
+                result.add(PATH_OPTIONS.stream()
+                        .map(option -> "--" + option + "=")
+                        .filter(arg::startsWith)
+                        .findFirst()
+                        .map(prefix -> prefix + absolute(arg.substring(prefix.length()).trim()))
+                        .orElse(arg));
+            }
+        }
+        return result.toArray(String[]::new);
+    }
+
+    private static String absolute(String path) {
+        return new File(path).getAbsolutePath();
+    }
+}
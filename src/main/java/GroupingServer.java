@@ -0,0 +1,90 @@
+import com.google.gson.Gson;
+import com.google.ortools.Loader;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import model.ProgramOutput;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Long-lived process that keeps the JVM and the native OR-tools libraries warm. A job is posted to {@code /group} as
+ * a JSON array of the command line arguments of {@link Main}. It is run exactly like the command line would, so the
+ * output file is written by the server, and the {@link ProgramOutput} is returned as the response body. Jobs are
+ * queued on a fixed pool of {@code jobs} threads, every job splits the configured cores over its own partitions.
+ * The server only listens on the loopback address, posting to {@code /shutdown} stops it.
+ */
+public class GroupingServer {
+    public static final int DEFAULT_PORT = 7345;
+
+    private final HttpServer server;
+    private final ExecutorService jobs;
+    private final ExecutorService requests = Executors.newCachedThreadPool();
+    private final Gson gson = new Gson();
+
+    public GroupingServer(int port, int concurrentJobs) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        jobs = Executors.newFixedThreadPool(Math.max(1, concurrentJobs));
+        server.createContext("/group", this::group);
+        server.createContext("/shutdown", this::shutdown);
+        // requests only wait for their job, the job pool bounds the actual work
+        server.setExecutor(requests);
+    }
+
+    public void start() {
+        Loader.loadNativeLibraries();
+        server.start();
+        System.out.printf("Grouping server listening on %s%n", server.getAddress());
+    }
+
+    private void group(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "Jobs must be posted");
+                return;
+            }
+            String[] args;
+            try (var reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+                args = gson.fromJson(reader, String[].class);
+            }
+            if (args == null) {
+                respond(exchange, 400, "No arguments provided");
+                return;
+            }
+
+            Future<ProgramOutput> job = jobs.submit(() -> new Main(args).run());
+            try {
+                respond(exchange, 200, gson.toJson(job.get()));
+            } catch (ExecutionException e) {
+                respond(exchange, 500, String.valueOf(e.getCause()));
+            } catch (InterruptedException e) {
+                job.cancel(true);
+                Thread.currentThread().interrupt();
+                respond(exchange, 503, "Interrupted while grouping");
+            }
+        }
+    }
+
+    private void shutdown(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            respond(exchange, 200, "Stopping");
+        }
+        System.out.println("Grouping server stopping");
+        jobs.shutdown();
+        requests.shutdown();
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+}
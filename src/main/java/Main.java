@@ -1,34 +1,155 @@
 import com.google.gson.Gson;
+import model.ContiguousPartitioner;
 import model.Converter;
+import model.FeasibleSolution;
+import model.IndexedInput;
+import model.Metrics;
+import model.OverlapPartitioner;
+import model.Partitioner;
 import model.ProgramOutput;
+import model.ReachabilityMatrix;
 import model.SolverInput;
+import model.SplitSizeTuning;
+import model.StreamingOutput;
 import model.TimedSolverResult;
+import solver.CachingSolver;
+import solver.ColumnGenerationSolver;
+import solver.ComponentSolver;
 import solver.CpModelSolver;
+import solver.DsaturSolver;
+import solver.GroupMerger;
+import solver.IncrementalSolver;
+import solver.KernelSolver;
+import solver.SmartBailSolver;
+import solver.SolutionCache;
+import solver.Solver;
+import solver.SplitSizeTuner;
 import solver.SplitSolver;
 
 import java.io.*;
 import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
 
 public class Main {
     private static final int SPLIT_SIZE = 150;
+    private static final int MIN_WORKERS_PER_SOLVER = 1;
+    private static final int CACHE_SIZE_MB = 256;
     private static final boolean EXECUTE_SAMPLE = false;
+    private static final String BATCH_OUTPUT_PREFIX = "grouped-";
+    private static final double MERGE_SECONDS = 5;
+
+    private int cores = Runtime.getRuntime().availableProcessors();
+    private int minWorkersPerSolver = MIN_WORKERS_PER_SOLVER;
+    private String solverName = "cp";
+    private String partitionerName = "overlap";
+    private String previousOutput = null;
+    private SolutionCache cache = null;
+    private boolean stream = false;
+    private boolean batch = false;
+    private int timeBudgetSeconds = 0;
+    private double plateauSeconds = 0;
+    private double relativeGap = 0;
+    private double mergeSeconds = MERGE_SECONDS;
+    private String metricsOutput = null;
+    private final String[] args;
+    private final Map<File, File> batchOutputs = new HashMap<>();
 
     public static void main(String[] args) throws IOException {
         if (EXECUTE_SAMPLE) {
-            sample();
+            new Main(new String[0]).sample();
+            return;
+        }
+
+        var serve = getOption(args, "serve", Arrays.asList(args).contains("--serve") ? Integer.toString(GroupingServer.DEFAULT_PORT) : null);
+        if (serve != null) {
+            new GroupingServer(Integer.parseInt(serve), getIntOption(args, "jobs", 1)).start();
+            return;
+        }
+        var connect = getOption(args, "connect", null);
+        if (connect != null && GroupingClient.submit(connect, args)) {
             return;
         }
 
+        new Main(args).run();
+    }
+
+    /**
+     * Parses the options of a single grouping job, the positional arguments are the input file, the output file and
+     * the split size.
+     */
+    public Main(String[] args) {
+        cores = getIntOption(args, "cores", cores);
+        minWorkersPerSolver = getIntOption(args, "workers", minWorkersPerSolver);
+        solverName = getOption(args, "solver", solverName);
+        partitionerName = getOption(args, "partitioner", partitionerName);
+        previousOutput = getOption(args, "previous", previousOutput);
+        stream = hasFlag(args, "stream");
+        batch = hasFlag(args, "batch");
+        timeBudgetSeconds = getIntOption(args, "time-budget", timeBudgetSeconds);
+        plateauSeconds = Double.parseDouble(getOption(args, "plateau", Double.toString(plateauSeconds)));
+        relativeGap = Double.parseDouble(getOption(args, "gap", Double.toString(relativeGap)));
+        mergeSeconds = Double.parseDouble(getOption(args, "merge", Double.toString(mergeSeconds)));
+        metricsOutput = getOption(args, "metrics", metricsOutput);
+        var cacheDirectory = getOption(args, "cache", null);
+        if (cacheDirectory != null) {
+            cache = new SolutionCache(new File(cacheDirectory), getIntOption(args, "cache-size", CACHE_SIZE_MB) * 1024L * 1024L);
+        }
+        this.args = getPositionalArguments(args);
+
+        if (stream && previousOutput != null) {
+            throw new RuntimeException("Streaming output cannot be combined with incremental grouping");
+        }
+        if (batch && (stream || previousOutput != null)) {
+            throw new RuntimeException("Batch mode cannot be combined with streaming output or incremental grouping");
+        }
+    }
+
+    /**
+     * Groups the input file and writes the output file, the written output is returned as well.
+     */
+    public ProgramOutput run() throws IOException {
+        if (batch) {
+            return runBatch();
+        }
+
         var inputFile = getInputFile(args);
         var outputFile = getOutputFile(args);
 
-        var splitSize = getSplitSize(args);
-        var solverInput = Converter.toSolverInput(inputFile, splitSize);
-        var result = solve(solverInput);
-        ProgramOutput output = new ProgramOutput(result.getSolverResult(), result.getTimer(), splitSize, solverInput.size());
+        var input = Converter.readIndexedInput(inputFile);
+        var splitSizeTuning = isAutoSplitSize(args) ? tuneSplitSize(input) : null;
+        var splitSize = splitSizeTuning != null ? splitSizeTuning.chosenSplitSize : getSplitSize(args);
+        if (stream) {
+            return solveStreaming(input, outputFile, splitSize, splitSizeTuning);
+        }
 
         Gson gson = new Gson();
+        ProgramOutput output;
+        TimedSolverResult result;
+        if (previousOutput != null) {
+            var incrementalSolver = new IncrementalSolver(getSplitSolver(), getPartitioner(), splitSize);
+            result = new GroupMerger(mergeSeconds).merge(input, incrementalSolver.solve(input, readPreviousSolution(gson)));
+            output = new ProgramOutput(result.getSolverResult(), result.getTimer(), splitSize, incrementalSolver.getSplits());
+        } else {
+            var solverInput = Converter.toSplitSolverInput(input, splitSize, getPartitioner());
+            result = merge(input, solverInput.size(), solve(solverInput));
+            output = new ProgramOutput(result.getSolverResult(), result.getTimer(), splitSize, solverInput.size());
+        }
+        output.splitSizeTuning = splitSizeTuning;
+        output.metrics = Metrics.of(result.getMetrics(), input.testCount, result.getSolverResult());
+        writeMetrics(output.metrics);
+
         String jsonOutput = gson.toJson(output);
 
         var writer = new FileWriter(outputFile);
@@ -36,10 +157,171 @@ public class Main {
             writer.write(jsonOutput);
             writer.flush();
         }
+        return output;
+    }
+
+    /**
+     * Groups every input of a directory or manifest in one process, see {@link #getBatchInputs()}. The inputs are
+     * converted concurrently and the partitions of all inputs are solved by a single {@link SplitSolver}, so the
+     * hardest partitions of any input are started first and the cores stay busy until the last one is solved. Every
+     * input gets its own output file, partitions are numbered across the whole batch in input order. The returned
+     * output covers the whole batch.
+     */
+    private ProgramOutput runBatch() throws IOException {
+        if (isAutoSplitSize(args)) {
+            throw new RuntimeException("Batch mode requires a fixed split size");
+        }
+        final int splitSize = getSplitSize(args);
+        var inputFiles = getBatchInputs();
+        var outputFiles = inputFiles.stream().map(this::getBatchOutputFile).toList();
+        System.out.printf("Grouping %s inputs in batch%n", inputFiles.size());
+
+        var inputs = new IndexedInput[inputFiles.size()];
+        var converted = convertConcurrently(inputFiles, splitSize, inputs);
+        List<SolverInput> partitions = new ArrayList<>();
+        int[] offsets = new int[converted.size() + 1];
+        for (int i = 0; i < converted.size(); i++) {
+            partitions.addAll(converted.get(i));
+            offsets[i + 1] = partitions.size();
+        }
+
+        var results = new TimedSolverResult[partitions.size()];
+        var total = solve(partitions, (index, result) -> results[index] = result);
+
+        Gson gson = new Gson();
+        for (int i = 0; i < inputFiles.size(); i++) {
+            var result = merge(inputs[i], offsets[i + 1] - offsets[i],
+                    TimedSolverResult.aggregate(Arrays.asList(results).subList(offsets[i], offsets[i + 1]), inputs[i].fixedSize));
+            var output = new ProgramOutput(result.getSolverResult(), result.getTimer(), splitSize, offsets[i + 1] - offsets[i]);
+            output.metrics = Metrics.of(result.getMetrics(), inputs[i].testCount, result.getSolverResult());
+            try (var writer = new FileWriter(outputFiles.get(i))) {
+                writer.write(gson.toJson(output));
+            }
+            System.out.printf("%s: %s groups (%s)%n", inputFiles.get(i), result.getSolverResult().solution.getGroups().size(), result.getSolverResult().status);
+        }
+
+        var output = new ProgramOutput(total.getSolverResult(), total.getTimer(), splitSize, partitions.size());
+        output.metrics = Metrics.of(total.getMetrics(), Arrays.stream(inputs).mapToInt(input -> input.testCount).sum(), total.getSolverResult());
+        writeMetrics(output.metrics);
+        return output;
+    }
+
+    /**
+     * The first positional argument is either a directory, of which every JSON file is an input, or a manifest that
+     * lists an input per line, optionally followed by its output. Relative paths in a manifest are resolved against
+     * the directory of the manifest, blank lines and lines starting with '#' are skipped.
+     */
+    private List<File> getBatchInputs() throws IOException {
+        var source = argumentToFile(args, 0);
+        if (!source.exists()) {
+            throw new FileNotFoundException(args[0]);
+        }
+
+        List<File> inputs = new ArrayList<>();
+        batchOutputs.clear();
+        if (source.isDirectory()) {
+            var files = source.listFiles((directory, name) -> name.endsWith(".json") && !name.startsWith(BATCH_OUTPUT_PREFIX));
+            Arrays.sort(Objects.requireNonNull(files));
+            inputs.addAll(Arrays.asList(files));
+        } else {
+            var base = source.getAbsoluteFile().getParentFile();
+            for (var line : Files.readAllLines(source.toPath())) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                var paths = line.split("\\s+");
+                var input = resolve(base, paths[0]);
+                if (!input.isFile()) {
+                    throw new FileNotFoundException(input.getPath());
+                }
+                inputs.add(input);
+                if (paths.length > 1) {
+                    batchOutputs.put(input, resolve(base, paths[1]));
+                }
+            }
+        }
+        if (inputs.isEmpty()) {
+            throw new RuntimeException(String.format("No inputs found in '%s'", args[0]));
+        }
+        return inputs;
+    }
+
+    /**
+     * Outputs not listed in the manifest are written as {@code grouped-<input name>} to the output directory given as
+     * second positional argument, or next to the input.
+     */
+    private File getBatchOutputFile(File input) {
+        if (batchOutputs.containsKey(input)) {
+            return batchOutputs.get(input);
+        }
+        var directory = args.length > 1 && args[1] != null && !args[1].trim().isEmpty() ? new File(args[1]) : input.getAbsoluteFile().getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new RuntimeException(String.format("Cannot create output directory '%s'", directory));
+        }
+        return new File(directory, BATCH_OUTPUT_PREFIX + input.getName());
+    }
+
+    private static File resolve(File base, String path) {
+        var file = new File(path);
+        return file.isAbsolute() ? file : new File(base, path);
+    }
+
+    /**
+     * Reads and partitions the inputs on a pool of {@code cores} threads, the partitions are returned in input order
+     * and the read inputs are stored in {@code inputs}.
+     */
+    private List<List<SolverInput>> convertConcurrently(List<File> inputFiles, int splitSize, IndexedInput[] inputs) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(cores, inputFiles.size())));
+        try {
+            List<Future<List<SolverInput>>> futures = new ArrayList<>();
+            for (int i = 0; i < inputFiles.size(); i++) {
+                final int index = i;
+                final var inputFile = inputFiles.get(i);
+                futures.add(executor.submit(() -> {
+                    inputs[index] = Converter.readIndexedInput(inputFile);
+                    var partitions = Converter.toSplitSolverInput(inputs[index], splitSize, getPartitioner());
+                    if (partitions.isEmpty()) {
+                        throw new RuntimeException(String.format("No input provided in '%s'", inputFile));
+                    }
+                    return partitions;
+                }));
+            }
+            List<List<SolverInput>> converted = new ArrayList<>();
+            for (var future : futures) {
+                converted.add(future.get());
+            }
+            return converted;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while converting batch input", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to convert batch input", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Writes every partition to the output file as soon as it is solved, see {@link StreamingOutput}.
+     */
+    private ProgramOutput solveStreaming(IndexedInput input, File outputFile, int splitSize, SplitSizeTuning splitSizeTuning) throws IOException {
+        var solverInput = Converter.toSplitSolverInput(input, splitSize, getPartitioner());
+        if (solverInput.isEmpty()) {
+            throw new RuntimeException("No input provided");
+        }
+        try (var output = new StreamingOutput(outputFile)) {
+            var result = getSplitSolver().solve(solverInput,
+                    (index, partitionResult) -> output.writePartition(index, solverInput.get(index).mutantIds.length, partitionResult));
+            var summary = new ProgramOutput(result.getSolverResult(), result.getTimer(), splitSize, solverInput.size());
+            summary.splitSizeTuning = splitSizeTuning;
+            summary.metrics = Metrics.of(result.getMetrics(), input.testCount, result.getSolverResult());
+            output.writeSummary(summary);
+            writeMetrics(summary.metrics);
+            return summary;
+        }
     }
 
     private static final int TEST_CAP = 10;
-    private static void sample() {
+    private void sample() {
         solve(new boolean[][]{
                 bools(0, 1, 2),
                 bools(3, 4, 5),
@@ -84,6 +366,20 @@ public class Main {
         }
     }
 
+    private FeasibleSolution readPreviousSolution(Gson gson) throws IOException {
+        var file = new File(previousOutput);
+        if (!file.exists() || file.isDirectory()) {
+            throw new FileNotFoundException(previousOutput);
+        }
+        try (var reader = new FileReader(file)) {
+            var previous = gson.fromJson(reader, ProgramOutput.class);
+            if (previous == null || previous.solverResult == null || previous.solverResult.solution == null) {
+                throw new RuntimeException(String.format("File '%s' does not contain a previous solution", previousOutput));
+            }
+            return previous.solverResult.solution;
+        }
+    }
+
     private static File argumentToFile(String[] args, int fileIndex) {
         if (args == null || args.length < fileIndex + 1 || args[fileIndex] == null || args[fileIndex].trim().isEmpty()) {
             throw new RuntimeException("No path found in arguments");
@@ -98,6 +394,67 @@ public class Main {
         return Integer.parseInt(args[2]);
     }
 
+    /**
+     * Merges compatible groups of different partitions within {@code --merge=<seconds>}, 0 disables merging.
+     */
+    private TimedSolverResult merge(IndexedInput input, int partitions, TimedSolverResult result) {
+        if (partitions <= 1) return result;
+        return new GroupMerger(mergeSeconds).merge(input, result);
+    }
+
+    /**
+     * Writes the metrics in the Prometheus text format when requested with {@code --metrics=<file>}.
+     */
+    private void writeMetrics(Metrics metrics) throws IOException {
+        if (metricsOutput == null) return;
+        try (var writer = new FileWriter(metricsOutput)) {
+            writer.write(metrics.toPrometheus());
+        }
+    }
+
+    private static boolean isAutoSplitSize(String[] args) {
+        return args != null && args.length >= 3 && "auto".equalsIgnoreCase(args[2]);
+    }
+
+    /**
+     * Probes a number of split sizes on the input, the time spent probing is taken from the time budget.
+     */
+    private SplitSizeTuning tuneSplitSize(IndexedInput input) {
+        final long start = System.nanoTime();
+        var tuner = new SplitSizeTuner(getSolverFactory(), getPartitioner(), cores, minWorkersPerSolver, timeBudgetSeconds);
+        var tuning = tuner.tune(input);
+        if (timeBudgetSeconds > 0) {
+            int elapsedSeconds = (int) Math.ceil((System.nanoTime() - start) / 1e9);
+            timeBudgetSeconds = Math.max(1, timeBudgetSeconds - elapsedSeconds);
+        }
+        return tuning;
+    }
+
+    /**
+     * Options are passed as {@code --name=value} and may appear anywhere between the positional arguments.
+     */
+    static String getOption(String[] args, String name, String defaultValue) {
+        var prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg != null && arg.startsWith(prefix)) {
+                return arg.substring(prefix.length()).trim();
+            }
+        }
+        return defaultValue;
+    }
+
+    static boolean hasFlag(String[] args, String name) {
+        return Arrays.asList(args).contains("--" + name) || Boolean.parseBoolean(getOption(args, name, "false"));
+    }
+
+    static int getIntOption(String[] args, String name, int defaultValue) {
+        return Integer.parseInt(getOption(args, name, Integer.toString(defaultValue)));
+    }
+
+    static String[] getPositionalArguments(String[] args) {
+        return Arrays.stream(args).filter(arg -> arg == null || !arg.startsWith("--")).toArray(String[]::new);
+    }
+
     private static boolean[] bools(int... reachableTests) {
         boolean[] result = new boolean[TEST_CAP];
         for (int i : reachableTests)
@@ -105,15 +462,46 @@ public class Main {
         return result;
     }
 
-    private static TimedSolverResult solve(List<SolverInput> solverInput) {
+    private TimedSolverResult solve(List<SolverInput> solverInput) {
+        return solve(solverInput, (index, result) -> {});
+    }
+
+    private TimedSolverResult solve(List<SolverInput> solverInput, BiConsumer<Integer, TimedSolverResult> listener) {
         if (solverInput.isEmpty()) {
             throw new RuntimeException("No input provided");
         }
 
-        return new SplitSolver(new CpModelSolver()).solve(solverInput);
+        return getSplitSolver().solve(solverInput, listener);
+    }
+
+    private SplitSolver getSplitSolver() {
+        return new SplitSolver(getSolverFactory(), cores, minWorkersPerSolver, timeBudgetSeconds);
+    }
+
+    private Partitioner getPartitioner() {
+        return switch (partitionerName) {
+            case "overlap" -> new OverlapPartitioner();
+            case "contiguous" -> new ContiguousPartitioner();
+            default -> throw new RuntimeException(String.format("Unknown partitioner '%s', expected 'overlap' or 'contiguous'", partitionerName));
+        };
+    }
+
+    private IntFunction<? extends Solver> getSolverFactory() {
+        IntFunction<? extends Solver> factory = getBaseSolverFactory();
+        if (cache == null) return factory;
+        return workers -> new CachingSolver(cache, factory.apply(workers));
+    }
+
+    private IntFunction<? extends Solver> getBaseSolverFactory() {
+        return switch (solverName) {
+            case "cp" -> workers -> new KernelSolver(new ComponentSolver(new SmartBailSolver(new CpModelSolver(workers, plateauSeconds, relativeGap))));
+            case "cg" -> workers -> new KernelSolver(new ComponentSolver(new SmartBailSolver(new ColumnGenerationSolver())));
+            case "dsatur" -> workers -> new ComponentSolver(new DsaturSolver());
+            default -> throw new RuntimeException(String.format("Unknown solver '%s', expected 'cp', 'cg' or 'dsatur'", solverName));
+        };
     }
 
-    private static void solve(boolean[][] input) {
-        solve(List.of(new SolverInput(input)));
+    private void solve(boolean[][] input) {
+        solve(List.of(new SolverInput(ReachabilityMatrix.of(input))));
     }
 }
\ No newline at end of file
@@ -0,0 +1,155 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Conflict graph of a set of mutants in compressed sparse row form, two mutants conflict when they reach a common
+ * test. The tests of every mutant are inverted into posting lists of the mutants reaching each test, and the edges
+ * are emitted from those lists, so no M x M or M x T structure is ever materialized. The neighbours of a mutant and
+ * the mutants of a posting list are in ascending order. Every posting list with at least two mutants is a clique,
+ * whose mutants all need different groups, and together these test cliques cover every edge.
+ */
+public class ConflictGraph {
+    private final int[] offsets;
+    private final int[] adjacency;
+    private final int[] postingOffsets;
+    private final int[] postings;
+
+    private ConflictGraph(int[] offsets, int[] adjacency, int[] postingOffsets, int[] postings) {
+        this.offsets = offsets;
+        this.adjacency = adjacency;
+        this.postingOffsets = postingOffsets;
+        this.postings = postings;
+    }
+
+    public static ConflictGraph of(ReachabilityMatrix R) {
+        int[][] mutantTests = new int[R.mutants()][];
+        for (int m = 0; m < mutantTests.length; m++) {
+            mutantTests[m] = R.testsOf(m);
+        }
+        return of(mutantTests, R.tests());
+    }
+
+    /**
+     * @param mutantTests the tests reached by every mutant, tests are numbered 0..tests-1 and unique per mutant
+     */
+    public static ConflictGraph of(int[][] mutantTests, int tests) {
+        final int M = mutantTests.length;
+
+        int[] postingOffsets = new int[tests + 1];
+        for (int[] reached : mutantTests) {
+            for (int t : reached) {
+                postingOffsets[t + 1]++;
+            }
+        }
+        for (int t = 0; t < tests; t++) {
+            postingOffsets[t + 1] += postingOffsets[t];
+        }
+        int[] postings = new int[postingOffsets[tests]];
+        int[] fill = Arrays.copyOf(postingOffsets, tests);
+        for (int m = 0; m < M; m++) {
+            for (int t : mutantTests[m]) {
+                postings[fill[t]++] = m;
+            }
+        }
+
+        // a neighbour reached through several tests is only emitted once, seen[n] holds the last mutant that saw n
+        int[] seen = new int[M];
+        Arrays.fill(seen, -1);
+        int[] offsets = new int[M + 1];
+        int[] adjacency = new int[Math.max(16, postings.length)];
+        int size = 0;
+        for (int m = 0; m < M; m++) {
+            for (int t : mutantTests[m]) {
+                for (int i = postingOffsets[t]; i < postingOffsets[t + 1]; i++) {
+                    int n = postings[i];
+                    if (n == m || seen[n] == m) continue;
+                    seen[n] = m;
+                    if (size == adjacency.length) {
+                        adjacency = Arrays.copyOf(adjacency, adjacency.length * 2);
+                    }
+                    adjacency[size++] = n;
+                }
+            }
+            Arrays.sort(adjacency, offsets[m], size);
+            offsets[m + 1] = size;
+        }
+        return new ConflictGraph(offsets, Arrays.copyOf(adjacency, size), postingOffsets, postings);
+    }
+
+    public int mutants() {
+        return offsets.length - 1;
+    }
+
+    public int tests() {
+        return postingOffsets.length - 1;
+    }
+
+    public long edges() {
+        return adjacency.length / 2;
+    }
+
+    public int degree(int mutant) {
+        return offsets[mutant + 1] - offsets[mutant];
+    }
+
+    /**
+     * @return the i-th neighbour of the mutant, 0 <= i < degree
+     */
+    public int neighbour(int mutant, int i) {
+        return adjacency[offsets[mutant] + i];
+    }
+
+    /**
+     * @return the mutants conflicting with the mutant in ascending order
+     */
+    public int[] neighbours(int mutant) {
+        return Arrays.copyOfRange(adjacency, offsets[mutant], offsets[mutant + 1]);
+    }
+
+    public boolean adjacent(int mutant1, int mutant2) {
+        return Arrays.binarySearch(adjacency, offsets[mutant1], offsets[mutant1 + 1], mutant2) >= 0;
+    }
+
+    /**
+     * @param mutants mutants in ascending order
+     * @return the given mutants that conflict with the mutant, in ascending order
+     */
+    public int[] retainNeighbours(int[] mutants, int mutant) {
+        int[] result = new int[Math.min(mutants.length, degree(mutant))];
+        int size = 0;
+        int i = 0;
+        int j = offsets[mutant];
+        while (i < mutants.length && j < offsets[mutant + 1]) {
+            if (mutants[i] == adjacency[j]) {
+                result[size++] = mutants[i];
+                i++;
+                j++;
+            } else if (mutants[i] < adjacency[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * @return the mutants reaching the test in ascending order
+     */
+    public int[] mutantsOf(int test) {
+        return Arrays.copyOfRange(postings, postingOffsets[test], postingOffsets[test + 1]);
+    }
+
+    public int postingSize(int test) {
+        return postingOffsets[test + 1] - postingOffsets[test];
+    }
+
+    /**
+     * Indicates whether every mutant conflicts with every other mutant.
+     */
+    public boolean isComplete() {
+        final long M = mutants();
+        return edges() == M * (M - 1) / 2;
+    }
+}
@@ -0,0 +1,22 @@
+package model;
+
+/**
+ * Splits the mutants into consecutive chunks in input order.
+ */
+public class ContiguousPartitioner implements Partitioner {
+    @Override
+    public int[][] partition(IndexedInput input, int splitSize) {
+        final int M = input.size();
+        final int P = (int) (((long) M + splitSize - 1) / splitSize);
+        int[][] partitions = new int[P][];
+        for (int p = 0; p < P; p++) {
+            int start = p * splitSize;
+            int size = Math.min(M - start, splitSize);
+            partitions[p] = new int[size];
+            for (int i = 0; i < size; i++) {
+                partitions[p][i] = start + i;
+            }
+        }
+        return partitions;
+    }
+}
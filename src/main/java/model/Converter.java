@@ -1,10 +1,12 @@
 package model;
 
-import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileReader;
+import java.io.IOException;
 import java.util.*;
 
 public class Converter {
@@ -12,28 +14,123 @@ public class Converter {
 
     }
 
-    public static List<SolverInput> toSolverInput(File inputFile, int splitSize) throws FileNotFoundException {
+    public static List<SolverInput> toSolverInput(File inputFile, int splitSize) throws IOException {
+        return toSolverInput(inputFile, splitSize, new OverlapPartitioner());
+    }
+
+    public static List<SolverInput> toSolverInput(File inputFile, int splitSize, Partitioner partitioner) throws IOException {
+        return toSplitSolverInput(readIndexedInput(inputFile), splitSize, partitioner);
+    }
+
+    /**
+     * Streams the program input from the given file, test names are interned while reading so that no
+     * {@link Mutant} objects or duplicate test names are held in memory.
+     */
+    public static IndexedInput readIndexedInput(File inputFile) throws IOException {
         if (inputFile == null || !inputFile.exists() || inputFile.isDirectory()) {
             throw new RuntimeException("Invalid file provided");
         }
-        Gson gson = new Gson();
-        ProgramInput input = gson.fromJson(new FileReader(inputFile), ProgramInput.class);
-        return toSplitSolverInput(input, splitSize);
+
+        boolean smartBail = false;
+        int fixedSize = 0;
+        int maximumSize = 0;
+        var interner = new TestInterner();
+        List<String> mutantIds = new ArrayList<>();
+        List<int[]> mutantTests = new ArrayList<>();
+
+        try (JsonReader reader = new JsonReader(new BufferedReader(new FileReader(inputFile)))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.skipValue();
+                    continue;
+                }
+                switch (name) {
+                    case "mutants" -> readMutants(reader, interner, mutantIds, mutantTests);
+                    case "smartBail" -> smartBail = reader.nextBoolean();
+                    case "fixedSize" -> fixedSize = reader.nextInt();
+                    case "maximumSize" -> maximumSize = reader.nextInt();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+
+        return new IndexedInput(
+                mutantIds.toArray(String[]::new),
+                mutantTests.toArray(int[][]::new),
+                interner.size(),
+                smartBail,
+                fixedSize,
+                maximumSize
+        );
+    }
+
+    private static void readMutants(JsonReader reader, TestInterner interner, List<String> mutantIds, List<int[]> mutantTests) throws IOException {
+        var buffer = new IntBuffer();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String id = null;
+            buffer.clear();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.skipValue();
+                } else if (name.equals("id")) {
+                    id = reader.nextString();
+                } else if (name.equals("tests")) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        buffer.add(interner.intern(reader.nextString()));
+                    }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            mutantIds.add(id);
+            mutantTests.add(buffer.toSortedUniqueArray());
+        }
+        reader.endArray();
+    }
+
+    public static IndexedInput toIndexedInput(ProgramInput input) {
+        Objects.requireNonNull(input);
+        final int M = input.mutants.length;
+        var interner = new TestInterner();
+        var buffer = new IntBuffer();
+        String[] mutantIds = new String[M];
+        int[][] mutantTests = new int[M][];
+        for (int m = 0; m < M; m++) {
+            var mutant = input.mutants[m];
+            buffer.clear();
+            for (String test : mutant.tests) {
+                buffer.add(interner.intern(test));
+            }
+            mutantIds[m] = mutant.id;
+            mutantTests[m] = buffer.toSortedUniqueArray();
+        }
+        return new IndexedInput(mutantIds, mutantTests, interner.size(), input.smartBail, input.fixedSize, input.maximumSize);
     }
 
     public static List<SolverInput> toSplitSolverInput(ProgramInput input, int splitSize) {
-        System.out.println("Total mutant input: " + input.mutants.length);
+        return toSplitSolverInput(toIndexedInput(input), splitSize);
+    }
+
+    public static List<SolverInput> toSplitSolverInput(IndexedInput input, int splitSize) {
+        return toSplitSolverInput(input, splitSize, new OverlapPartitioner());
+    }
+
+    public static List<SolverInput> toSplitSolverInput(IndexedInput input, int splitSize, Partitioner partitioner) {
+        System.out.println("Total mutant input: " + input.size());
         splitSize = splitSize <= 0 ? Integer.MAX_VALUE : splitSize;
         var result = new ArrayList<SolverInput>();
-        final Mutant[] mutants = input.mutants;
-
-        int i = 0;
-        while (i < mutants.length) {
-            final int M = Math.min(mutants.length - i, splitSize);
-            var splitInput = new ProgramInput(input);
-            splitInput.mutants = Arrays.copyOfRange(mutants, i, i + M, Mutant[].class);
-            result.add(toSolverInput(splitInput));
-            i += M;
+
+        for (int[] mutants : partitioner.partition(input, splitSize)) {
+            result.add(toSolverInput(input, mutants));
         }
 
         return result;
@@ -41,55 +138,95 @@ public class Converter {
 
     public static SolverInput toSolverInput(ProgramInput input) {
         Objects.requireNonNull(input);
-        var matrix = toReachabilityMatrix(input.mutants);
+        var indexedInput = toIndexedInput(input);
+        int[] mutants = new int[indexedInput.size()];
+        for (int m = 0; m < mutants.length; m++) {
+            mutants[m] = m;
+        }
+        return toSolverInput(indexedInput, mutants);
+    }
+
+    /**
+     * Creates the solver input for a subset of the mutants, tests are renumbered in order of first appearance so
+     * that the reachability matrix only spans the tests reached by the subset.
+     */
+    public static SolverInput toSolverInput(IndexedInput input, int[] mutants) {
+        var matrix = toReachabilityMatrix(input, mutants);
         return new SolverInput(
                 matrix,
-                Arrays.stream(input.mutants).map(mutant -> mutant.id).toArray(String[]::new),
+                Arrays.stream(mutants).mapToObj(m -> input.mutantIds[m]).toArray(String[]::new),
                 input.smartBail,
                 input.fixedSize,
                 input.maximumSize,
-                matrix.length != 0 ? matrix[0].length : 0
+                matrix.tests()
         );
     }
 
-    public static boolean[][] toReachabilityMatrix(Mutant[] mutants) {
+    public static ReachabilityMatrix toReachabilityMatrix(Mutant[] mutants) {
         Objects.requireNonNull(mutants);
-        final int M = mutants.length;
+        var input = new ProgramInput();
+        input.mutants = mutants;
+        return toSolverInput(input).reachabilityMatrix;
+    }
 
-        if (M == 0) return new boolean[0][];
+    private static ReachabilityMatrix toReachabilityMatrix(IndexedInput input, int[] mutants) {
+        final int M = mutants.length;
+        if (M == 0) return new ReachabilityMatrix(0, 0);
 
-        Set<String> uniqueTests = new HashSet<>();
-        List<String> orderedUniqueTests = new ArrayList<>();
-        for (Mutant mutant : mutants) {
-            for (String test : mutant.tests) {
-                if (uniqueTests.add(test)) {
-                    orderedUniqueTests.add(test);
-                }
+        int[] localTests = new int[input.testCount];
+        Arrays.fill(localTests, -1);
+        int tests = 0;
+        int[][] rows = new int[M][];
+        for (int i = 0; i < M; i++) {
+            int[] reached = input.mutantTests[mutants[i]];
+            rows[i] = new int[reached.length];
+            for (int j = 0; j < reached.length; j++) {
+                if (localTests[reached[j]] < 0) localTests[reached[j]] = tests++;
+                rows[i][j] = localTests[reached[j]];
             }
-            //uniqueTests.addAll(Arrays.asList(mutant.tests));
+            Arrays.sort(rows[i]);
         }
 
-        final int T = uniqueTests.size();
-        final String[] tests = orderedUniqueTests.toArray(String[]::new);
-        boolean[][] reachabilityMatrix = new boolean[M][];
-        for (int i = 0; i < M; i++) {
-            reachabilityMatrix[i] = bools(tests, mutants[i].tests, T);
+        return new ReachabilityMatrix(rows, tests);
+    }
+
+    private static class TestInterner {
+        private final Map<String, Integer> ids = new HashMap<>();
+
+        int intern(String test) {
+            return ids.computeIfAbsent(test, t -> ids.size());
         }
 
-        return reachabilityMatrix;
+        int size() {
+            return ids.size();
+        }
     }
 
-    private static boolean[] bools(String[] tests, String[] reachableTests, int testCap) {
-        boolean[] result = new boolean[testCap];
-        for (String test : reachableTests)
-            result[indexOf(tests, test)] = true;
-        return result;
-    }
+    private static class IntBuffer {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void clear() {
+            size = 0;
+        }
 
-    private static int indexOf(String[] array, String value) {
-        for (int i = 0; i < array.length; i++) {
-            if (Objects.equals(array[i], value)) return i;
+        int[] toSortedUniqueArray() {
+            int[] result = Arrays.copyOf(values, size);
+            Arrays.sort(result);
+            int unique = 0;
+            for (int i = 0; i < result.length; i++) {
+                if (i == 0 || result[i] != result[i - 1]) {
+                    result[unique++] = result[i];
+                }
+            }
+            return unique == result.length ? result : Arrays.copyOf(result, unique);
         }
-        return -1;
     }
 }
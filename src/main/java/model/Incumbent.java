@@ -0,0 +1,22 @@
+package model;
+
+/**
+ * Improvement found while a solver is still running, together with the best known lower bound at that moment. Only
+ * the number of groups is kept, the solution itself is not.
+ */
+public class Incumbent {
+    public final int groups;
+    public final int lowerBound;
+    public final long elapsedNanos;
+
+    public Incumbent(int groups, int lowerBound, long elapsedNanos) {
+        this.groups = groups;
+        this.lowerBound = lowerBound;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s groups (lower bound %s) after %s", groups, lowerBound, Timer.humanReadableFormat(elapsedNanos));
+    }
+}
@@ -0,0 +1,33 @@
+package model;
+
+/**
+ * Program input where every test name has been interned into an int id, tests of a mutant are sorted and unique.
+ */
+public class IndexedInput {
+    public String[] mutantIds;
+    public int[][] mutantTests;
+    public int testCount;
+    public boolean smartBail;
+    public int fixedSize;
+    public int maximumSize;
+
+    public IndexedInput(String[] mutantIds, int[][] mutantTests, int testCount, boolean smartBail, int fixedSize, int maximumSize) {
+        this.mutantIds = mutantIds;
+        this.mutantTests = mutantTests;
+        this.testCount = testCount;
+        this.smartBail = smartBail;
+        this.fixedSize = fixedSize;
+        this.maximumSize = maximumSize;
+    }
+
+    public int size() {
+        return mutantIds.length;
+    }
+
+    /**
+     * @return the largest number of mutants a group may hold, see {@link SolverInput#capacity(int, int)}
+     */
+    public int getCapacity() {
+        return SolverInput.capacity(maximumSize, fixedSize);
+    }
+}
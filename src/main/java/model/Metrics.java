@@ -0,0 +1,79 @@
+package model;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryType;
+import java.util.List;
+
+/**
+ * Metrics of every solved partition together with their aggregate, exported as part of the {@link ProgramOutput} or
+ * in the Prometheus text format.
+ */
+public class Metrics {
+    public SolverMetrics total;
+    public List<SolverMetrics> partitions;
+    /**
+     * Peak heap usage of the JVM since it started, summed over the heap memory pools.
+     */
+    public long jvmPeakHeapBytes;
+
+    /**
+     * @param tests  number of distinct tests of the whole input, partitions renumber the tests they reach
+     * @param result the written result, its groups and lower bound may differ from those of the partitions after
+     *               merging
+     */
+    public static Metrics of(List<SolverMetrics> partitions, int tests, SolverResult result) {
+        var metrics = new Metrics();
+        metrics.partitions = partitions;
+        metrics.total = SolverMetrics.aggregate(partitions);
+        metrics.total.tests = tests;
+        metrics.total.groups = result.solution != null ? result.solution.getGroups().size() : 0;
+        metrics.total.lowerBound = result.lowerBound;
+        metrics.total.updateDerived();
+        for (var pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                metrics.jvmPeakHeapBytes += pool.getPeakUsage().getUsed();
+            }
+        }
+        return metrics;
+    }
+
+    public String toPrometheus() {
+        var text = new StringBuilder();
+        gauge(text, "mutants", "Number of mutants", m -> m.mutants);
+        gauge(text, "tests", "Number of distinct tests", m -> m.tests);
+        gauge(text, "conflicts", "Number of overlapping mutant pairs", m -> m.conflicts);
+        gauge(text, "conflict_density", "Fraction of mutant pairs that overlap", m -> m.density);
+        gauge(text, "cliques", "Number of cliques used for at-most-one constraints", m -> m.cliques);
+        gauge(text, "model_variables", "Number of model variables", m -> m.variables);
+        gauge(text, "model_constraints", "Number of model constraints", m -> m.constraints);
+        gauge(text, "groups", "Number of groups formed", m -> m.groups);
+        gauge(text, "lower_bound", "Lower bound on the number of groups", m -> m.lowerBound);
+        gauge(text, "gap", "Relative gap between the groups formed and the lower bound", m -> m.gap);
+        gauge(text, "cpsat_solves", "Number of CP-SAT solves", m -> m.cpSatSolves);
+        gauge(text, "cpsat_conflicts", "Number of CP-SAT conflicts", m -> m.cpSatConflicts);
+        gauge(text, "cpsat_branches", "Number of CP-SAT branches", m -> m.cpSatBranches);
+        gauge(text, "cpsat_presolve_seconds", "Time spent in CP-SAT presolve", m -> m.cpSatPresolveSeconds);
+        gauge(text, "cpsat_wall_seconds", "Wall time spent in CP-SAT", m -> m.cpSatWallSeconds);
+        gauge(text, "cpsat_deterministic_time", "Deterministic time spent in CP-SAT", m -> m.cpSatDeterministicTime);
+        gauge(text, "peak_heap_bytes", "Peak heap usage seen while solving", m -> m.peakHeapBytes);
+        text.append("# HELP mutant_grouping_jvm_peak_heap_bytes Peak heap usage of the JVM\n");
+        text.append("# TYPE mutant_grouping_jvm_peak_heap_bytes gauge\n");
+        text.append("mutant_grouping_jvm_peak_heap_bytes ").append(jvmPeakHeapBytes).append('\n');
+        return text.toString();
+    }
+
+    private interface Value {
+        Number of(SolverMetrics metrics);
+    }
+
+    private void gauge(StringBuilder text, String name, String help, Value value) {
+        name = "mutant_grouping_" + name;
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(" gauge\n");
+        text.append(name).append(' ').append(value.of(total)).append('\n');
+        for (var partition : partitions) {
+            text.append(name).append("{partition=\"").append(partition.partition).append("\"} ")
+                    .append(value.of(partition)).append('\n');
+        }
+    }
+}
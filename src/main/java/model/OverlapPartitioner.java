@@ -0,0 +1,95 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Partitions mutants based on their test overlap. Mutants in different partitions can never share a group, so the
+ * partitioner keeps mutants that could share a group together by spreading mutants that overlap on the same tests over
+ * different partitions (a min-cut on the graph of compatible mutants). Every partition then only needs about as many
+ * groups as its share of the most reached tests, instead of a few partitions each needing as many groups as the whole
+ * input.
+ * <p>
+ * Mutants are placed greedily, those reaching the most tests first, in the partition where they overlap with the
+ * fewest already placed mutants. Partitions are balanced and never exceed the split size.
+ */
+public class OverlapPartitioner implements Partitioner {
+    @Override
+    public int[][] partition(IndexedInput input, int splitSize) {
+        final int M = input.size();
+        final int P = (int) (((long) M + splitSize - 1) / splitSize);
+        if (P <= 1) return new ContiguousPartitioner().partition(input, splitSize);
+        final int capacity = (M + P - 1) / P;
+
+        Integer[] order = IntStream.range(0, M).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.comparingInt((Integer m) -> -input.mutantTests[m].length).thenComparingInt(m -> m));
+
+        var counts = new TestPartitionCounts[input.testCount];
+        int[] partitionOf = new int[M];
+        int[] sizes = new int[P];
+        int[] score = new int[P];
+        for (int m : order) {
+            Arrays.fill(score, 0);
+            for (int t : input.mutantTests[m]) {
+                if (counts[t] != null) counts[t].addTo(score);
+            }
+
+            int best = -1;
+            for (int p = 0; p < P; p++) {
+                if (sizes[p] >= capacity) continue;
+                if (best < 0 || score[p] < score[best] || (score[p] == score[best] && sizes[p] < sizes[best])) {
+                    best = p;
+                }
+            }
+
+            partitionOf[m] = best;
+            sizes[best]++;
+            for (int t : input.mutantTests[m]) {
+                if (counts[t] == null) counts[t] = new TestPartitionCounts();
+                counts[t].increment(best);
+            }
+        }
+
+        int[][] partitions = new int[P][];
+        for (int p = 0; p < P; p++) {
+            partitions[p] = new int[sizes[p]];
+            sizes[p] = 0;
+        }
+        for (int m = 0; m < M; m++) {
+            int p = partitionOf[m];
+            partitions[p][sizes[p]++] = m;
+        }
+        return partitions;
+    }
+
+    /**
+     * Sparse number of mutants reaching a single test per partition.
+     */
+    private static class TestPartitionCounts {
+        private int[] partitions = new int[2];
+        private int[] counts = new int[2];
+        private int size;
+
+        void increment(int partition) {
+            for (int i = 0; i < size; i++) {
+                if (partitions[i] == partition) {
+                    counts[i]++;
+                    return;
+                }
+            }
+            if (size == partitions.length) {
+                partitions = Arrays.copyOf(partitions, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            partitions[size] = partition;
+            counts[size++] = 1;
+        }
+
+        void addTo(int[] score) {
+            for (int i = 0; i < size; i++) {
+                score[partitions[i]] += counts[i];
+            }
+        }
+    }
+}
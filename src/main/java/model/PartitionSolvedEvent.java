@@ -0,0 +1,71 @@
+package model;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event committed for every solved partition, recorded when the JVM runs with
+ * {@code -XX:StartFlightRecording}.
+ */
+@Name("mutantgrouping.PartitionSolved")
+@Label("Partition Solved")
+@Category("Mutant Grouping")
+@Description("A partition of the input was solved")
+public class PartitionSolvedEvent extends Event {
+    @Label("Partition")
+    public int partition;
+    @Label("Mutants")
+    public int mutants;
+    @Label("Tests")
+    public int tests;
+    @Label("Conflicts")
+    public long conflicts;
+    @Label("Density")
+    public double density;
+    @Label("Variables")
+    public long variables;
+    @Label("Constraints")
+    public long constraints;
+    @Label("Groups")
+    public int groups;
+    @Label("Lower Bound")
+    public int lowerBound;
+    @Label("Gap")
+    public double gap;
+    @Label("Status")
+    public String status;
+    @Label("CP-SAT Conflicts")
+    public long cpSatConflicts;
+    @Label("CP-SAT Branches")
+    public long cpSatBranches;
+    @Label("CP-SAT Presolve Seconds")
+    public double cpSatPresolveSeconds;
+    @Label("Peak Heap")
+    @DataAmount
+    public long peakHeapBytes;
+
+    /**
+     * The event spans the solve of the partition when it is started before solving and committed after.
+     */
+    public void set(SolverMetrics metrics, SolverStatus status) {
+        partition = metrics.partition;
+        mutants = metrics.mutants;
+        tests = metrics.tests;
+        conflicts = metrics.conflicts;
+        density = metrics.density;
+        variables = metrics.variables;
+        constraints = metrics.constraints;
+        groups = metrics.groups;
+        lowerBound = metrics.lowerBound;
+        gap = metrics.gap;
+        this.status = status.name();
+        cpSatConflicts = metrics.cpSatConflicts;
+        cpSatBranches = metrics.cpSatBranches;
+        cpSatPresolveSeconds = metrics.cpSatPresolveSeconds;
+        peakHeapBytes = metrics.peakHeapBytes;
+    }
+}
@@ -0,0 +1,11 @@
+package model;
+
+/**
+ * Decides which mutants are solved together when the input is split into partitions of limited size.
+ */
+public interface Partitioner {
+    /**
+     * @return the mutant indices of every partition, each partition contains at most {@code splitSize} mutants
+     */
+    int[][] partition(IndexedInput input, int splitSize);
+}
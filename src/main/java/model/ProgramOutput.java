@@ -7,6 +7,11 @@ public class ProgramOutput {
     public int splits;
     public SolverResult solverResult;
     public Timer timer;
+    public Metrics metrics;
+    /**
+     * Only present when the split size was chosen automatically.
+     */
+    public SplitSizeTuning splitSizeTuning;
 
     public ProgramOutput(SolverResult solverResult, Timer timer, int splitSize, int splits) {
         this.solverResult = solverResult;
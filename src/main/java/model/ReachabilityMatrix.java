@@ -0,0 +1,67 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Sparse mutant x test reachability matrix, every row holds the tests reached by a mutant in ascending order. Memory
+ * is proportional to the number of reached tests rather than to mutants x tests.
+ */
+public class ReachabilityMatrix {
+    private static final int[] NO_TESTS = new int[0];
+
+    private final int[][] rows;
+    private final int tests;
+
+    public ReachabilityMatrix(int mutants, int tests) {
+        this.tests = tests;
+        this.rows = new int[mutants][];
+        Arrays.fill(rows, NO_TESTS);
+    }
+
+    /**
+     * @param rows the tests reached by every mutant, sorted and unique, the arrays are not copied
+     */
+    public ReachabilityMatrix(int[][] rows, int tests) {
+        this.rows = Objects.requireNonNull(rows);
+        this.tests = tests;
+    }
+
+    public static ReachabilityMatrix of(boolean[][] matrix) {
+        Objects.requireNonNull(matrix);
+        final int T = matrix.length != 0 ? matrix[0].length : 0;
+        int[][] rows = new int[matrix.length][];
+        for (int m = 0; m < matrix.length; m++) {
+            final boolean[] reached = matrix[m];
+            rows[m] = IntStream.range(0, T).filter(t -> reached[t]).toArray();
+        }
+        return new ReachabilityMatrix(rows, T);
+    }
+
+    public int mutants() {
+        return rows.length;
+    }
+
+    public int tests() {
+        return tests;
+    }
+
+    /**
+     * @return the tests reached by the mutant in ascending order
+     */
+    public int[] testsOf(int mutant) {
+        return rows[mutant].clone();
+    }
+
+    /**
+     * Creates a matrix containing only the given mutants, in the given order, over the same tests.
+     */
+    public ReachabilityMatrix subset(int[] mutants) {
+        int[][] result = new int[mutants.length][];
+        for (int i = 0; i < mutants.length; i++) {
+            result[i] = rows[mutants[i]];
+        }
+        return new ReachabilityMatrix(result, tests);
+    }
+}
@@ -4,22 +4,32 @@ import java.beans.Transient;
 import java.util.Objects;
 
 public class SolverInput {
-    public boolean[][] reachabilityMatrix;
+    public ReachabilityMatrix reachabilityMatrix;
     public String[] mutantIds;
     public boolean smartBail;
     public int fixedGroupSize;
     public int maxGroupSize;
     public int testSuiteSize;
+    /**
+     * Optional known solution, solvers may use it as a starting point. Groups may contain mutants of other inputs.
+     */
+    public FeasibleSolution hint;
+    /**
+     * Optional share of an overall time budget, solvers use their own time limit when absent.
+     */
+    public TimeBudget.Allocation timeAllocation;
+    private transient ConflictGraph conflictGraph;
+    private transient ReachabilityMatrix conflictGraphSource;
 
     public SolverInput() {
-        this(new boolean[0][]);
+        this(new ReachabilityMatrix(0, 0));
     }
 
-    public SolverInput(boolean[][] reachabilityMatrix) {
+    public SolverInput(ReachabilityMatrix reachabilityMatrix) {
         this(Objects.requireNonNull(reachabilityMatrix), null, false, -1, -1, 0);
     }
 
-    public SolverInput(boolean[][] reachabilityMatrix, String[] mutantIds, boolean smartBail, int fixedSize, int maximumSize, int testSuiteSize) {
+    public SolverInput(ReachabilityMatrix reachabilityMatrix, String[] mutantIds, boolean smartBail, int fixedSize, int maximumSize, int testSuiteSize) {
         this.reachabilityMatrix = reachabilityMatrix;
         this.mutantIds = mutantIds;
         this.smartBail = smartBail;
@@ -28,6 +38,46 @@ public class SolverInput {
         this.testSuiteSize = testSuiteSize;
     }
 
+    /**
+     * Conflict graph of the reachability matrix, built on first use and shared by every solver of this input.
+     */
+    @Transient
+    public synchronized ConflictGraph getConflictGraph() {
+        if (conflictGraphSource != reachabilityMatrix) {
+            conflictGraph = ConflictGraph.of(reachabilityMatrix);
+            conflictGraphSource = reachabilityMatrix;
+        }
+        return conflictGraph;
+    }
+
+    /**
+     * Drops the cached conflict graph once the input is solved, it is rebuilt when needed again.
+     */
+    public synchronized void releaseConflictGraph() {
+        conflictGraph = null;
+        conflictGraphSource = null;
+    }
+
+    /**
+     * @return the largest number of mutants a group may hold
+     */
+    @Transient
+    public int getCapacity() {
+        return capacity(maxGroupSize, fixedGroupSize);
+    }
+
+    /**
+     * Groups hold at most the maximum group size and at most the fixed group size, {@link Integer#MAX_VALUE} when
+     * neither is set. A fixed group size above the maximum group size leaves only singletons.
+     */
+    public static int capacity(int maxGroupSize, int fixedGroupSize) {
+        int capacity = maxGroupSize > 0 ? maxGroupSize : Integer.MAX_VALUE;
+        if (fixedGroupSize > 0) {
+            capacity = fixedGroupSize <= capacity ? fixedGroupSize : 1;
+        }
+        return capacity;
+    }
+
     @Transient
     public String getMutantId(int mutantIndex) {
         if (mutantIds == null) return Integer.toString(mutantIndex);
@@ -0,0 +1,80 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Size and search statistics of a single solved model. Fields that a solver does not report stay 0.
+ */
+public class SolverMetrics {
+    /**
+     * Index of the partition within the split input, -1 for metrics aggregated over several partitions.
+     */
+    public int partition = -1;
+    public int mutants;
+    public int tests;
+    /**
+     * Number of overlapping mutant pairs, the edges of the conflict graph.
+     */
+    public long conflicts;
+    public double density;
+    public int cliques;
+    public long variables;
+    public long constraints;
+    public int groups;
+    public int lowerBound;
+    public double gap;
+
+    // CP-SAT statistics summed over all solves of the model
+    public int cpSatSolves;
+    public long cpSatConflicts;
+    public long cpSatBranches;
+    public double cpSatPresolveSeconds;
+    public double cpSatWallSeconds;
+    public double cpSatDeterministicTime;
+
+    /**
+     * Highest heap usage of the JVM seen between the solver phases, includes memory used by concurrent solvers.
+     */
+    public long peakHeapBytes;
+
+    public void sampleHeap() {
+        var runtime = Runtime.getRuntime();
+        peakHeapBytes = Math.max(peakHeapBytes, runtime.totalMemory() - runtime.freeMemory());
+    }
+
+    /**
+     * Recomputes the density and gap from the counted conflicts, groups and lower bound.
+     */
+    public void updateDerived() {
+        density = mutants <= 1 ? 0 : conflicts / (mutants * (mutants - 1) / 2.0);
+        gap = lowerBound > 0 && groups > 0 ? (double) (groups - lowerBound) / groups : 0;
+    }
+
+    /**
+     * Sums the metrics of independently solved models, groups add up as every model forms its own groups. The largest
+     * lower bound is kept, which only holds for the combined input without a fixed group size. Models share tests,
+     * so the largest test count is kept as well, callers that know the combined input set the exact count.
+     */
+    public static SolverMetrics aggregate(List<SolverMetrics> metrics) {
+        var result = new SolverMetrics();
+        for (var m : metrics) {
+            result.mutants += m.mutants;
+            result.tests = Math.max(result.tests, m.tests);
+            result.conflicts += m.conflicts;
+            result.cliques += m.cliques;
+            result.variables += m.variables;
+            result.constraints += m.constraints;
+            result.groups += m.groups;
+            result.lowerBound = Math.max(result.lowerBound, m.lowerBound);
+            result.cpSatSolves += m.cpSatSolves;
+            result.cpSatConflicts += m.cpSatConflicts;
+            result.cpSatBranches += m.cpSatBranches;
+            result.cpSatPresolveSeconds += m.cpSatPresolveSeconds;
+            result.cpSatWallSeconds += m.cpSatWallSeconds;
+            result.cpSatDeterministicTime += m.cpSatDeterministicTime;
+            result.peakHeapBytes = Math.max(result.peakHeapBytes, m.peakHeapBytes);
+        }
+        result.updateDerived();
+        return result;
+    }
+}
@@ -5,16 +5,46 @@ import java.util.List;
 public class SolverResult {
     public final SolverStatus status;
     public final FeasibleSolution solution;
+    /**
+     * Proven lower bound on the number of groups, 0 when unknown.
+     */
+    public final int lowerBound;
+    /**
+     * Relative gap between the number of groups of the solution and the lower bound, 0 when optimal or unknown.
+     */
+    public final double gap;
 
     public SolverResult(SolverStatus status, FeasibleSolution solution) {
+        this(status, solution, 0);
+    }
+
+    public SolverResult(SolverStatus status, FeasibleSolution solution, int lowerBound) {
         this.status = status;
         this.solution = solution;
+        this.lowerBound = Math.max(lowerBound, status == SolverStatus.OPTIMAL && solution != null ? solution.getGroups().size() : 0);
+        this.gap = gap(solution, this.lowerBound);
+    }
+
+    private static double gap(FeasibleSolution solution, int lowerBound) {
+        if (solution == null || lowerBound <= 0 || solution.getGroups().isEmpty()) return 0;
+        final int groups = solution.getGroups().size();
+        return Math.max(0, (double) (groups - lowerBound) / groups);
     }
 
-    public static SolverResult aggregate(List<SolverResult> results) {
-        return new SolverResult(
-                SolverStatus.aggregate(results.stream().map(r -> r.status).toList()),
-                FeasibleSolution.aggregate(results.stream().map(r -> r.solution).toList())
-        );
+    /**
+     * Every partition is an induced subset of the same mutants, so without a fixed group size each of their lower
+     * bounds holds for the whole input but their sum does not: groups of different partitions could have been
+     * combined. The aggregate takes the largest bound, and is only optimal when its groups reach that bound. With a
+     * fixed group size mutants of other partitions may complete groups a partition could not, so no partition bound
+     * holds for the whole input and the bound of the aggregate is unknown.
+     */
+    public static SolverResult aggregate(List<SolverResult> results, int fixedGroupSize) {
+        var solution = FeasibleSolution.aggregate(results.stream().map(r -> r.solution).toList());
+        final int lowerBound = results.size() > 1 && fixedGroupSize > 0 ? 0 : results.stream().mapToInt(r -> r.lowerBound).max().orElse(0);
+        var status = SolverStatus.aggregate(results.stream().map(r -> r.status).toList());
+        if (results.size() > 1 && status == SolverStatus.OPTIMAL && solution.getGroups().size() > lowerBound) {
+            status = SolverStatus.FEASIBLE;
+        }
+        return new SolverResult(status, solution, lowerBound);
     }
 }
@@ -0,0 +1,46 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records how the split size was chosen in auto mode: the profile of the input and the probe solve of every
+ * candidate split size.
+ */
+public class SplitSizeTuning {
+    public int mutants;
+    public int tests;
+    public double averageTestsPerMutant;
+    public int maxMutantsPerTest;
+    /**
+     * Conflict degrees are upper bounds, a mutant is counted once for every test it shares with another mutant.
+     */
+    public double averageDegree;
+    public int medianDegree;
+    public int p90Degree;
+    public int maxDegree;
+    public double density;
+    public double probeSeconds;
+    public int chosenSplitSize;
+    public List<Probe> probes = new ArrayList<>();
+
+    public static class Probe {
+        public int splitSize;
+        public int partitions;
+        public int sampledPartitions;
+        public int sampledMutants;
+        public int sampledGroups;
+        public SolverStatus status;
+        public double sampledSeconds;
+        public double expectedGroups;
+        public double expectedSeconds;
+        public boolean withinBudget;
+
+        @Override
+        public String toString() {
+            return String.format("split size %s: %s groups over %s sampled mutants (%s) in %.2fs, expecting %.1f groups in %.1fs%s",
+                    splitSize, sampledGroups, sampledMutants, status, sampledSeconds, expectedGroups, expectedSeconds,
+                    withinBudget ? "" : " (over budget)");
+        }
+    }
+}
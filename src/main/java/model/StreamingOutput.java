@@ -0,0 +1,91 @@
+package model;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Writes the program output as newline delimited JSON: one record per partition as soon as it is solved, followed by
+ * a summary record with the aggregated status and timer once all partitions are done.
+ * <pre>
+ * {"type":"partition","partition":0,"mutants":150,"status":"OPTIMAL","solution":[["1","7"],["2"]],"timer":{...}}
+ * {"type":"summary","splitSize":150,"splits":1,"status":"OPTIMAL","groups":2,"timer":{...}}
+ * </pre>
+ */
+public class StreamingOutput implements Closeable {
+    private final Writer writer;
+    private final Gson gson = new Gson();
+
+    public StreamingOutput(File outputFile) throws IOException {
+        this.writer = new FileWriter(outputFile);
+    }
+
+    public synchronized void writePartition(int partition, int mutants, TimedSolverResult result) {
+        try {
+            var json = newRecord("partition");
+            json.name("partition").value(partition);
+            json.name("mutants").value(mutants);
+            json.name("status").value(result.getSolverResult().status.name());
+            json.name("solution");
+            gson.toJson(result.getSolverResult().solution, FeasibleSolution.class, json);
+            json.name("timer");
+            gson.toJson(result.getTimer(), Timer.class, json);
+            json.name("metrics");
+            gson.toJson(result.getMetrics().toArray(SolverMetrics[]::new), SolverMetrics[].class, json);
+            endRecord(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized void writeSummary(ProgramOutput output) {
+        try {
+            var json = newRecord("summary");
+            json.name("splitSize").value(output.splitSize);
+            json.name("splits").value(output.splits);
+            json.name("status").value(output.solverResult.status.name());
+            var solution = output.solverResult.solution;
+            json.name("groups").value(solution != null ? solution.getGroups().size() : 0);
+            json.name("timer");
+            gson.toJson(output.timer, Timer.class, json);
+            if (output.metrics != null) {
+                // metrics of the partitions were already written with every partition
+                json.name("metrics");
+                gson.toJson(output.metrics.total, SolverMetrics.class, json);
+            }
+            if (output.splitSizeTuning != null) {
+                json.name("splitSizeTuning");
+                gson.toJson(output.splitSizeTuning, SplitSizeTuning.class, json);
+            }
+            endRecord(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private JsonWriter newRecord(String type) throws IOException {
+        var json = new JsonWriter(writer);
+        json.setSerializeNulls(true);
+        json.beginObject();
+        json.name("type").value(type);
+        return json;
+    }
+
+    private void endRecord(JsonWriter json) throws IOException {
+        json.endObject();
+        json.flush();
+        writer.write(System.lineSeparator());
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
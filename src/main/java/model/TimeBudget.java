@@ -0,0 +1,104 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Divides an overall time budget over partitions that are solved with a limited concurrency. Every partition receives
+ * a share of the remaining core time proportional to its weight. Time left over by partitions that finish early flows
+ * to the partitions that are still queued, or to the ones still running once nothing is queued anymore.
+ */
+public class TimeBudget {
+    private final long deadlineNanos;
+    private final int concurrency;
+    private double pendingWeight;
+    private final List<Allocation> running = new ArrayList<>();
+
+    public TimeBudget(double totalSeconds, int concurrency, double totalWeight) {
+        this.deadlineNanos = System.nanoTime() + (long) (totalSeconds * 1e9);
+        this.concurrency = Math.max(1, concurrency);
+        this.pendingWeight = totalWeight;
+    }
+
+    /**
+     * Estimates how hard a partition is to solve from its size and conflict density.
+     */
+    public static double weight(SolverInput input) {
+        var R = input.reachabilityMatrix;
+        final double M = R.mutants();
+        if (M <= 1) return 1;
+
+        // pairs of mutants reaching the same test over-approximate the number of conflicts
+        int[] mutantsPerTest = new int[R.tests()];
+        for (int m = 0; m < M; m++) {
+            for (int t : R.testsOf(m)) {
+                mutantsPerTest[t]++;
+            }
+        }
+        double pairs = 0;
+        for (int n : mutantsPerTest) {
+            pairs += n * (n - 1) / 2.0;
+        }
+        double density = Math.min(1, pairs / (M * (M - 1) / 2));
+        return M * (1 + density);
+    }
+
+    public synchronized Allocation allocate(double weight) {
+        final long now = System.nanoTime();
+        final double remaining = Math.max(0, deadlineNanos - now);
+        double reserved = 0;
+        for (var allocation : running) {
+            reserved += Math.max(0, allocation.deadlineNanos - now);
+        }
+
+        double available = Math.max(0, remaining * concurrency - reserved);
+        double share = available * weight / Math.max(weight, pendingWeight);
+        pendingWeight = Math.max(0, pendingWeight - weight);
+
+        var allocation = new Allocation(weight, now + (long) Math.min(remaining, share));
+        running.add(allocation);
+        return allocation;
+    }
+
+    private synchronized void release(Allocation allocation) {
+        if (!running.remove(allocation)) return;
+
+        final long now = System.nanoTime();
+        final long unused = allocation.deadlineNanos - now;
+        if (unused <= 0 || pendingWeight > 0 || running.isEmpty()) {
+            // queued partitions automatically claim the unused time in their allocation
+            return;
+        }
+
+        double runningWeight = running.stream().mapToDouble(a -> a.weight).sum();
+        for (var other : running) {
+            other.deadlineNanos = Math.min(deadlineNanos, other.deadlineNanos + (long) (unused * other.weight / runningWeight));
+        }
+    }
+
+    public class Allocation {
+        private final double weight;
+        private long deadlineNanos;
+
+        private Allocation(double weight, long deadlineNanos) {
+            this.weight = weight;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * @return the number of seconds the partition may still use, this can grow when other partitions finish early
+         */
+        public double remainingSeconds() {
+            synchronized (TimeBudget.this) {
+                return (deadlineNanos - System.nanoTime()) / 1e9;
+            }
+        }
+
+        /**
+         * Returns the remaining time of this allocation to the budget.
+         */
+        public void release() {
+            TimeBudget.this.release(this);
+        }
+    }
+}
@@ -1,14 +1,24 @@
 package model;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class TimedSolverResult {
     private final SolverResult solverResult;
     private final Timer timer;
+    private final List<SolverMetrics> metrics;
 
     public TimedSolverResult(SolverResult solverResult, Timer timer) {
+        this(solverResult, timer, List.of());
+    }
+
+    /**
+     * @param metrics metrics of every model solved to obtain the result
+     */
+    public TimedSolverResult(SolverResult solverResult, Timer timer, List<SolverMetrics> metrics) {
         this.solverResult = solverResult;
         this.timer = timer;
+        this.metrics = metrics;
     }
 
     public SolverResult getSolverResult() {
@@ -19,10 +29,20 @@ public class TimedSolverResult {
         return timer;
     }
 
-    public static TimedSolverResult aggregate(List<TimedSolverResult> results) {
+    public List<SolverMetrics> getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @param fixedGroupSize fixed group size of the partitions, see {@link SolverResult#aggregate(List, int)}
+     */
+    public static TimedSolverResult aggregate(List<TimedSolverResult> results, int fixedGroupSize) {
+        List<SolverMetrics> metrics = new ArrayList<>();
+        results.forEach(r -> metrics.addAll(r.metrics));
         return new TimedSolverResult(
-                SolverResult.aggregate(results.stream().map(r -> r.solverResult).toList()),
-                Timer.aggregate(results.stream().map(r -> r.timer).toList())
+                SolverResult.aggregate(results.stream().map(r -> r.solverResult).toList(), fixedGroupSize),
+                Timer.aggregate(results.stream().map(r -> r.timer).toList()),
+                metrics
         );
     }
 }
@@ -1,25 +1,54 @@
 package solver;
 
+import model.SolverMetrics;
 import model.Timer;
 import model.SolverInput;
 import model.TimedSolverResult;
 import model.SolverResult;
 
+import java.util.List;
+
 public abstract class ASolver implements Solver {
     protected SolverInput input;
+    protected SolverMetrics metrics;
 
     @Override
     public TimedSolverResult solve(SolverInput input) {
         this.input = input;
+        this.metrics = new SolverMetrics();
+        metrics.mutants = input.reachabilityMatrix.mutants();
+        metrics.tests = input.reachabilityMatrix.tests();
         Timer timer = new Timer(
-                Timer.time(this::setupAxioms),
-                Timer.time(this::setupVariables),
-                Timer.time(this::setupConstraints),
-                Timer.time(this::createObjective),
-                Timer.time(this::solve)
+                time(this::setupAxioms),
+                time(this::setupVariables),
+                time(this::setupConstraints),
+                time(this::createObjective),
+                time(this::solve)
                 );
         var result = formulateResult();
-        return new TimedSolverResult(result, timer);
+        if (result.solution != null) {
+            metrics.groups = result.solution.getGroups().size();
+        }
+        metrics.lowerBound = result.lowerBound;
+        metrics.updateDerived();
+        return new TimedSolverResult(result, timer, List.of(metrics));
+    }
+
+    /**
+     * @return the number of groups used by an assignment of mutants to groups numbered from 0
+     */
+    protected static int countGroups(int[] groupOf) {
+        int groups = 0;
+        for (int g : groupOf) {
+            groups = Math.max(groups, g + 1);
+        }
+        return groups;
+    }
+
+    private long time(Runnable phase) {
+        long duration = Timer.time(phase);
+        metrics.sampleHeap();
+        return duration;
     }
 
     protected abstract void setupAxioms();
@@ -0,0 +1,64 @@
+package solver;
+
+import model.SolverInput;
+import model.SolverMetrics;
+import model.SolverStatus;
+import model.TimedSolverResult;
+import model.Timer;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Looks up inputs in a {@link SolutionCache} before solving them. Optimal results are reused as is, feasible results
+ * are only used as hint for the delegate since a better solution may exist. Every solver seeds its heuristic with the hint
+ * through {@link DsaturSolver}.
+ */
+public class CachingSolver implements Solver {
+    private final SolutionCache cache;
+    private final Solver solver;
+
+    public CachingSolver(SolutionCache cache, Solver solver) {
+        this.cache = Objects.requireNonNull(cache);
+        this.solver = Objects.requireNonNull(solver);
+    }
+
+    @Override
+    public TimedSolverResult solve(SolverInput input) {
+        final String key = SolutionCache.key(input);
+        var cached = cache.get(key);
+        if (cached != null && cached.status == SolverStatus.OPTIMAL) {
+            System.out.println("Reusing cached optimal solution " + key);
+            var metrics = new SolverMetrics();
+            metrics.mutants = input.reachabilityMatrix.mutants();
+            metrics.tests = input.reachabilityMatrix.tests();
+            metrics.groups = cached.solution.getGroups().size();
+            metrics.lowerBound = metrics.groups;
+            return new TimedSolverResult(cached, new Timer(0, 0, 0, 0, 0), List.of(metrics));
+        }
+
+        // the cached solution is only a hint for this solve, the input is left as it was
+        var hint = input.hint;
+        if (cached != null && hint == null) {
+            input.hint = cached.solution;
+        }
+        TimedSolverResult result;
+        try {
+            result = solver.solve(input);
+        } finally {
+            input.hint = hint;
+        }
+        var solverResult = result.getSolverResult();
+        if (!solverResult.status.hasSolution()) {
+            return cached != null ? new TimedSolverResult(cached, result.getTimer(), result.getMetrics()) : result;
+        }
+
+        if (cached != null && solverResult.status != SolverStatus.OPTIMAL
+                && cached.solution.getGroups().size() < solverResult.solution.getGroups().size()) {
+            // the cached feasible solution is still better than the new one
+            return new TimedSolverResult(cached, result.getTimer(), result.getMetrics());
+        }
+        cache.put(key, solverResult);
+        return result;
+    }
+}
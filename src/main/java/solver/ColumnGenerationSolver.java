@@ -0,0 +1,426 @@
+package solver;
+
+import com.google.ortools.Loader;
+import com.google.ortools.linearsolver.MPConstraint;
+import com.google.ortools.linearsolver.MPObjective;
+import com.google.ortools.linearsolver.MPSolver;
+import com.google.ortools.linearsolver.MPVariable;
+import com.google.ortools.sat.BoolVar;
+import com.google.ortools.sat.CpModel;
+import com.google.ortools.sat.CpSolver;
+import com.google.ortools.sat.CpSolverSolutionCallback;
+import com.google.ortools.sat.CpSolverStatus;
+import com.google.ortools.sat.LinearExpr;
+import com.google.ortools.sat.Literal;
+import model.ConflictGraph;
+import model.FeasibleSolution;
+import model.SolverResult;
+import model.SolverStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Models grouping as set partitioning over the independent sets of the conflict graph: every column is a group of
+ * mutants that do not overlap, and as few columns as possible must cover every mutant exactly once. The LP relaxation
+ * is solved with GLOP by column generation. New columns are priced with a greedy maximum weight independent set over
+ * the duals, and with CP-SAT once the greedy pricing finds nothing. The integer master is then solved over the
+ * generated columns with SCIP.
+ * <p>
+ * The LP bound of this formulation is much stronger than that of the compact model of {@link CpModelSolver}, and the
+ * master only grows with the number of generated columns, so it scales to larger partitions.
+ */
+public class ColumnGenerationSolver extends ASolver {
+    private static final double MAX_TIME_IN_SECONDS = 90;
+    private static final double PRICING_TIME_IN_SECONDS = 10;
+    private static final double INTEGER_MASTER_TIME_IN_SECONDS = 10;
+    private static final int GREEDY_STARTS = 200;
+    private static final double EPSILON = 1e-6;
+    private static final double DUAL_SCALE = 1e6;
+
+    private int M;
+    private ConflictGraph conflicts;
+    private List<int[]> cliques;
+
+    static {
+        Loader.loadNativeLibraries();
+    }
+
+    @Override
+    protected void setupAxioms() {
+        conflicts = input.getConflictGraph();
+        M = conflicts.mutants();
+        metrics.conflicts = conflicts.edges();
+
+        // the test cliques of the conflict graph, see {@link ConflictGraph}
+        List<int[]> testCliques = new ArrayList<>();
+        for (int t = 0; t < conflicts.tests(); t++) {
+            if (conflicts.postingSize(t) > 1) testCliques.add(conflicts.mutantsOf(t));
+        }
+        cliques = testCliques;
+        metrics.cliques = cliques.size();
+    }
+
+    private int capacity;
+    private boolean partitioning;
+    private final List<int[]> columns = new ArrayList<>();
+    private final Set<BitSet> knownColumns = new HashSet<>();
+    private int[] heuristicGroups;
+    @Override
+    protected void setupVariables() {
+        capacity = input.getCapacity();
+        // subsets of a group are groups as well unless the size is fixed, so covering is then equivalent to
+        // partitioning and has non-negative duals
+        partitioning = input.fixedGroupSize > 1;
+
+        columns.clear();
+        knownColumns.clear();
+        heuristicGroups = new DsaturSolver().assign(input);
+        int groups = Arrays.stream(heuristicGroups).max().orElse(-1) + 1;
+        for (int g = 0; g < groups; g++) {
+            final int group = g;
+            addColumn(IntStream.range(0, M).filter(m -> heuristicGroups[m] == group).toArray());
+        }
+        // singletons keep the master feasible whatever columns are added
+        for (int m = 0; m < M; m++) {
+            addColumn(new int[]{m});
+        }
+    }
+
+    private boolean addColumn(int[] column) {
+        var key = new BitSet(M);
+        for (int m : column) {
+            key.set(m);
+        }
+        if (!knownColumns.add(key)) return false;
+        columns.add(column);
+        return true;
+    }
+
+    private MPSolver master;
+    private MPConstraint[] rows;
+    private final List<MPVariable> columnVariables = new ArrayList<>();
+    @Override
+    protected void setupConstraints() {
+        master = MPSolver.createSolver("GLOP");
+        rows = new MPConstraint[M];
+        for (int m = 0; m < M; m++) {
+            rows[m] = master.makeConstraint(1, partitioning ? 1 : MPSolver.infinity(), "M" + m);
+        }
+    }
+
+    private MPObjective objective;
+    @Override
+    protected void createObjective() {
+        objective = master.objective();
+        objective.setMinimization();
+        columnVariables.clear();
+        for (int[] column : columns) {
+            addColumnVariable(column);
+        }
+    }
+
+    private void addColumnVariable(int[] column) {
+        var variable = master.makeNumVar(0, MPSolver.infinity(), "C" + columnVariables.size());
+        for (int m : column) {
+            rows[m].setCoefficient(variable, 1);
+        }
+        objective.setCoefficient(variable, 1);
+        columnVariables.add(variable);
+    }
+
+    private int lowerBound;
+    private double lpBound;
+    private int iterations;
+    private int[] bestGroups;
+    private SolverStatus status;
+    @Override
+    protected void solve() {
+        final long deadline = System.nanoTime() + (long) (MAX_TIME_IN_SECONDS * 1e9);
+        lowerBound = LowerBound.of(input);
+        lpBound = 0;
+        iterations = 0;
+        bestGroups = heuristicGroups;
+        status = SolverStatus.FEASIBLE;
+
+        // there is nothing to improve when the heuristic already reaches the lower bound
+        boolean converged = M == 0 || countGroups(heuristicGroups) <= lowerBound;
+        while (!converged && remainingSeconds(deadline) > 0) {
+            if (master.solve() != MPSolver.ResultStatus.OPTIMAL) break;
+            iterations++;
+            final double lpValue = objective.value();
+            double[] duals = new double[M];
+            for (int m = 0; m < M; m++) {
+                duals[m] = rows[m].dualValue();
+            }
+
+            List<int[]> priced = priceGreedy(duals);
+            if (priced.isEmpty()) {
+                var exact = priceExact(duals, Math.min(PRICING_TIME_IN_SECONDS, remainingSeconds(deadline)));
+                if (!partitioning && exact.upperBound > EPSILON) {
+                    // Farley: no column prices above the bound, so the LP optimum is at least lpValue / bound
+                    int farley = (int) Math.ceil(lpValue / Math.max(1, exact.upperBound) - EPSILON);
+                    lowerBound = Math.max(lowerBound, farley);
+                    if (farley >= (int) Math.ceil(lpValue - EPSILON)) {
+                        // the rounded LP bound cannot improve anymore, further columns only help the integer master
+                        lpBound = lpValue;
+                        break;
+                    }
+                }
+                if (exact.column == null) {
+                    converged = exact.proven;
+                    if (converged) lpBound = lpValue;
+                    break;
+                }
+                priced = List.of(exact.column);
+            }
+
+            boolean added = false;
+            for (int[] column : priced) {
+                if (addColumn(column)) {
+                    addColumnVariable(column);
+                    added = true;
+                }
+            }
+            if (!added) break;
+        }
+        if (converged) {
+            lowerBound = Math.max(lowerBound, (int) Math.ceil(lpBound - EPSILON));
+        }
+
+        solveIntegerMaster(deadline);
+        if (countGroups(bestGroups) <= lowerBound) {
+            status = SolverStatus.OPTIMAL;
+        }
+        metrics.variables = columns.size();
+        metrics.constraints = M;
+    }
+
+    private double remainingSeconds(long deadline) {
+        return input.timeAllocation != null
+                ? input.timeAllocation.remainingSeconds()
+                : (deadline - System.nanoTime()) / 1e9;
+    }
+
+    /**
+     * Builds an independent set from each of the mutants with the highest duals, adding the other mutants in order of
+     * decreasing dual. Returns the sets whose duals sum to more than 1, these have a negative reduced cost.
+     */
+    private List<int[]> priceGreedy(double[] duals) {
+        Integer[] order = new Integer[M];
+        for (int m = 0; m < M; m++) {
+            order[m] = m;
+        }
+        Arrays.sort(order, Comparator.comparingDouble((Integer m) -> -duals[m]));
+
+        // starts are spread over mutants not covered by the columns found so far, which keeps the columns diverse
+        List<int[]> result = new ArrayList<>();
+        var covered = new BitSet(M);
+        for (int start = 0, attempts = 0; start < M && attempts < GREEDY_STARTS; start++) {
+            if (covered.get(order[start])) continue;
+            attempts++;
+            var column = new BitSet(M);
+            for (int i = 0; i < M; i++) {
+                // only a fixed group size needs mutants that do not add to the value
+                addIfFree(column, order[(start + i) % M], duals, partitioning);
+            }
+            if (partitioning && column.cardinality() != input.fixedGroupSize) continue;
+            if (!partitioning) {
+                improve(column, order, duals);
+            }
+            if (value(column, duals) > 1 + EPSILON) {
+                result.add(column.stream().toArray());
+                covered.or(column);
+            }
+        }
+        return result;
+    }
+
+    private void addIfFree(BitSet column, int m, double[] duals, boolean allowWorthless) {
+        if (column.get(m) || column.cardinality() >= capacity) return;
+        if (duals[m] <= EPSILON && !allowWorthless) return;
+        for (int i = 0; i < conflicts.degree(m); i++) {
+            if (column.get(conflicts.neighbour(m, i))) return;
+        }
+        column.set(m);
+    }
+
+    /**
+     * Local search that swaps a mutant into the column when its dual exceeds that of the members it conflicts with.
+     */
+    private void improve(BitSet column, Integer[] order, double[] duals) {
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int m : order) {
+                if (column.get(m) || duals[m] <= EPSILON) continue;
+                var blocking = new BitSet(M);
+                for (int i = 0; i < conflicts.degree(m); i++) {
+                    if (column.get(conflicts.neighbour(m, i))) blocking.set(conflicts.neighbour(m, i));
+                }
+                if (column.cardinality() - blocking.cardinality() >= capacity) continue;
+                if (duals[m] <= value(blocking, duals) + EPSILON) continue;
+                column.andNot(blocking);
+                column.set(m);
+                for (int other : order) {
+                    addIfFree(column, other, duals, false);
+                }
+                improved = true;
+            }
+        }
+    }
+
+    private static double value(BitSet column, double[] duals) {
+        return column.stream().mapToDouble(m -> duals[m]).sum();
+    }
+
+    private static class PricingResult {
+        int[] column;
+        double upperBound;
+        boolean proven;
+    }
+
+    /**
+     * Finds the maximum weight independent set over the duals with CP-SAT. The returned column is null when no set
+     * has a negative reduced cost, which is only certain when the result is proven.
+     */
+    private PricingResult priceExact(double[] duals, double seconds) {
+        var result = new PricingResult();
+        if (partitioning && input.fixedGroupSize > Math.min(capacity, M)) {
+            // no column of the fixed size fits, only the singletons are valid groups
+            result.proven = true;
+            return result;
+        }
+        if (seconds <= 0) return result;
+
+        var model = new CpModel();
+        BoolVar[] chosen = new BoolVar[M];
+        long[] weights = new long[M];
+        for (int m = 0; m < M; m++) {
+            chosen[m] = model.newBoolVar("M" + m);
+            weights[m] = (long) Math.floor(duals[m] * DUAL_SCALE);
+        }
+        for (int[] clique : cliques) {
+            List<Literal> members = new ArrayList<>(clique.length);
+            for (int m : clique) {
+                members.add(chosen[m]);
+            }
+            model.addAtMostOne(members);
+        }
+        if (partitioning) {
+            model.addEquality(LinearExpr.sum(chosen), input.fixedGroupSize);
+        }
+        if (capacity < M) {
+            model.addLessOrEqual(LinearExpr.sum(chosen), capacity);
+        }
+        model.maximize(LinearExpr.weightedSum(chosen, weights));
+
+        var solver = new CpSolver();
+        solver.getParameters().setMaxTimeInSeconds(seconds).setNumWorkers(1);
+        // any column with a negative reduced cost will do, only the last pricing has to be proven
+        final double threshold = (1 + EPSILON) * DUAL_SCALE;
+        var pricingStatus = solver.solve(model, new CpSolverSolutionCallback() {
+            @Override
+            public void onSolutionCallback() {
+                if (objectiveValue() > threshold) stopSearch();
+            }
+        });
+        metrics.cpSatSolves++;
+        metrics.cpSatConflicts += solver.numConflicts();
+        metrics.cpSatBranches += solver.numBranches();
+        metrics.cpSatWallSeconds += solver.wallTime();
+
+        result.proven = pricingStatus == CpSolverStatus.OPTIMAL;
+        // weights were rounded down, every chosen mutant may have lost up to one unit
+        result.upperBound = (solver.bestObjectiveBound() + M) / DUAL_SCALE;
+        if (pricingStatus == CpSolverStatus.OPTIMAL || pricingStatus == CpSolverStatus.FEASIBLE) {
+            double value = 0;
+            List<Integer> column = new ArrayList<>();
+            for (int m = 0; m < M; m++) {
+                if (solver.booleanValue(chosen[m])) {
+                    column.add(m);
+                    value += duals[m];
+                }
+            }
+            if (value > 1 + EPSILON) {
+                result.column = column.stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Selects the fewest generated columns that cover every mutant with SCIP, starting from the heuristic groups.
+     */
+    private void solveIntegerMaster(long deadline) {
+        if (M == 0 || countGroups(bestGroups) <= lowerBound) return;
+        var integerMaster = MPSolver.createSolver("SCIP");
+        if (integerMaster == null) {
+            integerMaster = MPSolver.createSolver("SAT");
+        }
+
+        MPConstraint[] integerRows = new MPConstraint[M];
+        for (int m = 0; m < M; m++) {
+            integerRows[m] = integerMaster.makeConstraint(1, partitioning ? 1 : MPSolver.infinity(), "M" + m);
+        }
+        var integerObjective = integerMaster.objective();
+        integerObjective.setMinimization();
+        MPVariable[] selected = new MPVariable[columns.size()];
+        double[] hint = new double[columns.size()];
+        final int heuristicColumns = countGroups(heuristicGroups);
+        for (int c = 0; c < columns.size(); c++) {
+            selected[c] = integerMaster.makeBoolVar("C" + c);
+            for (int m : columns.get(c)) {
+                integerRows[m].setCoefficient(selected[c], 1);
+            }
+            integerObjective.setCoefficient(selected[c], 1);
+            // the heuristic groups were added as the first columns
+            hint[c] = c < heuristicColumns ? 1 : 0;
+        }
+        integerMaster.setHint(selected, hint);
+        // the generated columns may not contain an optimal solution, proving that can take long so the time is capped
+        final double seconds = Math.max(1, Math.min(INTEGER_MASTER_TIME_IN_SECONDS, remainingSeconds(deadline)));
+        integerMaster.setTimeLimit((long) (seconds * 1000));
+
+        var integerStatus = integerMaster.solve();
+        if (integerStatus != MPSolver.ResultStatus.OPTIMAL && integerStatus != MPSolver.ResultStatus.FEASIBLE) return;
+
+        // covering may select a mutant more than once, it stays in the first selected column
+        int[] groupOf = new int[M];
+        Arrays.fill(groupOf, -1);
+        int groups = 0;
+        for (int c = 0; c < columns.size(); c++) {
+            if (selected[c].solutionValue() < 0.5) continue;
+            boolean used = false;
+            for (int m : columns.get(c)) {
+                if (groupOf[m] >= 0) continue;
+                groupOf[m] = groups;
+                used = true;
+            }
+            if (used) groups++;
+        }
+        if (groups < countGroups(bestGroups) && Arrays.stream(groupOf).allMatch(g -> g >= 0)) {
+            bestGroups = groupOf;
+        }
+    }
+
+    @Override
+    protected SolverResult formulateResult() {
+        var groups = new ArrayList<List<String>>();
+        for (int g = 0; g < countGroups(bestGroups); g++) {
+            groups.add(new ArrayList<>());
+        }
+        for (int m = 0; m < M; m++) {
+            groups.get(bestGroups[m]).add(input.getMutantId(m));
+        }
+        System.out.printf("Type: %s, Number of groups: %s, Lower bound: %s, LP bound: %.2f, Columns: %s, Iterations: %s%n",
+                status, groups.size(), lowerBound, lpBound, columns.size(), iterations);
+        return new SolverResult(status, new FeasibleSolution(groups), lowerBound);
+    }
+}
@@ -0,0 +1,208 @@
+package solver;
+
+import model.FeasibleSolution;
+import model.SolverInput;
+import model.SolverMetrics;
+import model.SolverResult;
+import model.SolverStatus;
+import model.TimedSolverResult;
+import model.Timer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Splits the input into the connected components of its conflict graph and solves every component independently.
+ * Mutants of different components never overlap, so group i of every component can be merged into a single group.
+ * Without a maximum group size this is exact: the number of groups equals that of the hardest component. With a
+ * maximum group size the groups are packed first-fit decreasing instead. Fixed group sizes cannot be merged and are
+ * solved as a whole by the delegate.
+ */
+public class ComponentSolver implements Solver {
+    private final Solver solver;
+
+    public ComponentSolver(Solver solver) {
+        this.solver = Objects.requireNonNull(solver);
+    }
+
+    @Override
+    public TimedSolverResult solve(SolverInput input) {
+        if (input.fixedGroupSize > 0) {
+            return solver.solve(input);
+        }
+
+        var components = components(input);
+        if (components.size() <= 1) {
+            return solver.solve(input);
+        }
+
+        // isolated mutants do not need a solver, they can share groups up to the maximum group size
+        List<Integer> isolated = new ArrayList<>();
+        List<TimedSolverResult> results = new ArrayList<>();
+        for (int[] component : components) {
+            if (component.length == 1) {
+                isolated.add(component[0]);
+            } else {
+                results.add(solver.solve(subset(input, component)));
+            }
+        }
+        if (!isolated.isEmpty()) {
+            final int groupSize = input.maxGroupSize > 0 ? input.maxGroupSize : isolated.size();
+            List<List<String>> groups = new ArrayList<>();
+            for (int i = 0; i < isolated.size(); i += groupSize) {
+                groups.add(isolated.subList(i, Math.min(isolated.size(), i + groupSize)).stream().map(input::getMutantId).toList());
+            }
+            results.add(new TimedSolverResult(
+                    new SolverResult(SolverStatus.OPTIMAL, new FeasibleSolution(groups)),
+                    new Timer(0, 0, 0, 0, 0)
+            ));
+        }
+
+        System.out.printf("Solved %s independent components (%s isolated mutants)%n", results.size(), isolated.size());
+        var status = SolverStatus.aggregate(results.stream().map(r -> r.getSolverResult().status).toList());
+        var timer = Timer.aggregate(results.stream().map(TimedSolverResult::getTimer).toList());
+        var metrics = aggregateMetrics(input, results);
+        // every component needs at least its own number of groups, packing adds the counting bound
+        int lowerBound = results.stream().mapToInt(r -> r.getSolverResult().lowerBound).max().orElse(0);
+        lowerBound = Math.max(lowerBound, LowerBound.counting(input.reachabilityMatrix.mutants(), input.maxGroupSize, 0));
+        if (results.stream().anyMatch(r -> r.getSolverResult().solution == null)) {
+            metrics.lowerBound = lowerBound;
+            metrics.updateDerived();
+            return new TimedSolverResult(new SolverResult(status, null, lowerBound), timer, List.of(metrics));
+        }
+
+        var solutions = results.stream().map(r -> r.getSolverResult().solution).toList();
+        var merged = input.maxGroupSize > 0 ? pack(solutions, input.maxGroupSize) : union(solutions);
+        if (input.maxGroupSize > 0 && status == SolverStatus.OPTIMAL && merged.getGroups().size() > lowerBound) {
+            // packing is a heuristic, the merged result is only optimal when it reaches the lower bound
+            status = SolverStatus.FEASIBLE;
+        }
+        var result = new SolverResult(status, merged, lowerBound);
+        metrics.groups = merged.getGroups().size();
+        metrics.lowerBound = result.lowerBound;
+        metrics.updateDerived();
+        return new TimedSolverResult(result, timer, List.of(metrics));
+    }
+
+    /**
+     * Combines the metrics of the components into those of the whole input.
+     */
+    private static SolverMetrics aggregateMetrics(SolverInput input, List<TimedSolverResult> results) {
+        var componentMetrics = results.stream().flatMap(r -> r.getMetrics().stream()).toList();
+        var metrics = SolverMetrics.aggregate(componentMetrics);
+        metrics.mutants = input.reachabilityMatrix.mutants();
+        metrics.tests = input.reachabilityMatrix.tests();
+        metrics.sampleHeap();
+        return metrics;
+    }
+
+    /**
+     * Computes the connected components of the conflict graph with a union-find over the mutants reaching each test.
+     */
+    private static List<int[]> components(SolverInput input) {
+        var R = input.reachabilityMatrix;
+        final int M = R.mutants();
+        int[] parent = new int[M];
+        for (int m = 0; m < M; m++) {
+            parent[m] = m;
+        }
+
+        int[] firstMutantOfTest = new int[R.tests()];
+        Arrays.fill(firstMutantOfTest, -1);
+        for (int m = 0; m < M; m++) {
+            for (int t : R.testsOf(m)) {
+                if (firstMutantOfTest[t] < 0) {
+                    firstMutantOfTest[t] = m;
+                } else {
+                    parent[find(parent, m)] = find(parent, firstMutantOfTest[t]);
+                }
+            }
+        }
+
+        int[] componentOf = new int[M];
+        List<List<Integer>> components = new ArrayList<>();
+        Arrays.fill(componentOf, -1);
+        for (int m = 0; m < M; m++) {
+            int root = find(parent, m);
+            if (componentOf[root] < 0) {
+                componentOf[root] = components.size();
+                components.add(new ArrayList<>());
+            }
+            components.get(componentOf[root]).add(m);
+        }
+        return components.stream().map(c -> c.stream().mapToInt(Integer::intValue).toArray()).toList();
+    }
+
+    private static int find(int[] parent, int m) {
+        while (parent[m] != m) {
+            parent[m] = parent[parent[m]];
+            m = parent[m];
+        }
+        return m;
+    }
+
+    static SolverInput subset(SolverInput input, int[] mutants) {
+        var subset = new SolverInput(
+                input.reachabilityMatrix.subset(mutants),
+                Arrays.stream(mutants).mapToObj(input::getMutantId).toArray(String[]::new),
+                input.smartBail,
+                input.fixedGroupSize,
+                input.maxGroupSize,
+                input.testSuiteSize
+        );
+        subset.hint = input.hint;
+        subset.timeAllocation = input.timeAllocation;
+        return subset;
+    }
+
+    private static FeasibleSolution union(List<FeasibleSolution> solutions) {
+        List<List<String>> groups = new ArrayList<>();
+        for (var solution : solutions) {
+            for (int g = 0; g < solution.getGroups().size(); g++) {
+                if (groups.size() <= g) {
+                    groups.add(new ArrayList<>());
+                }
+                groups.get(g).addAll(solution.getGroups().get(g));
+            }
+        }
+        return new FeasibleSolution(groups);
+    }
+
+    /**
+     * Packs groups first-fit decreasing into groups of at most {@code maxGroupSize} mutants. Two groups of the same
+     * component may overlap, so every merged group holds at most one group per component.
+     */
+    private static FeasibleSolution pack(List<FeasibleSolution> solutions, int maxGroupSize) {
+        // {component, group} pairs sorted by decreasing group size
+        List<int[]> order = new ArrayList<>();
+        for (int c = 0; c < solutions.size(); c++) {
+            for (int g = 0; g < solutions.get(c).getGroups().size(); g++) {
+                order.add(new int[]{c, g});
+            }
+        }
+        order.sort(Comparator.comparingInt((int[] cg) -> -solutions.get(cg[0]).getGroups().get(cg[1]).size()));
+
+        List<List<String>> groups = new ArrayList<>();
+        List<boolean[]> components = new ArrayList<>();
+        for (int[] cg : order) {
+            var group = solutions.get(cg[0]).getGroups().get(cg[1]);
+            int target = -1;
+            for (int i = 0; i < groups.size() && target < 0; i++) {
+                if (!components.get(i)[cg[0]] && groups.get(i).size() + group.size() <= maxGroupSize) {
+                    target = i;
+                }
+            }
+            if (target < 0) {
+                target = groups.size();
+                groups.add(new ArrayList<>());
+                components.add(new boolean[solutions.size()]);
+            }
+            groups.get(target).addAll(group);
+            components.get(target)[cg[0]] = true;
+        }
+        return new FeasibleSolution(groups);
+    }
+}
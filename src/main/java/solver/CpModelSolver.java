@@ -2,60 +2,175 @@ package solver;
 
 import com.google.ortools.Loader;
 import com.google.ortools.sat.*;
+import model.ConflictGraph;
 import model.FeasibleSolution;
+import model.Incumbent;
 import model.SolverResult;
 import model.SolverStatus;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
 
 public class CpModelSolver extends ASolver {
+    private final int numWorkers;
+    private final double plateauSeconds;
+    private final double relativeGap;
+
     private int M;
     private int T;
     private CpModel model;
 
-    private Literal[][] overlaps;
+    private List<int[]> cliques;
 
     static {
         Loader.loadNativeLibraries();
     }
 
+    public CpModelSolver() {
+        this(0);
+    }
+
+    /**
+     * @param numWorkers number of CP-SAT search workers, 0 lets CP-SAT decide based on the available cores
+     */
+    public CpModelSolver(int numWorkers) {
+        this(numWorkers, 0);
+    }
+
+    /**
+     * @param numWorkers number of CP-SAT search workers, 0 lets CP-SAT decide based on the available cores
+     * @param plateauSeconds stop once no improving solution was found for this many seconds, 0 disables this
+     */
+    public CpModelSolver(int numWorkers, double plateauSeconds) {
+        this(numWorkers, plateauSeconds, 0);
+    }
+
+    /**
+     * @param numWorkers number of CP-SAT search workers, 0 lets CP-SAT decide based on the available cores
+     * @param plateauSeconds stop once no improving solution was found for this many seconds, 0 disables this
+     * @param relativeGap stop once the number of groups is within this fraction of the lower bound, 0 only stops at
+     *                    the lower bound itself
+     */
+    public CpModelSolver(int numWorkers, double plateauSeconds, double relativeGap) {
+        this.numWorkers = Math.max(0, numWorkers);
+        this.plateauSeconds = Math.max(0, plateauSeconds);
+        this.relativeGap = Math.max(0, relativeGap);
+    }
+
     @Override
     protected void setupAxioms() {
         var R = input.reachabilityMatrix;
-        M = R.length;
-        T = M > 0 ? R[0].length : 0;
+        M = R.mutants();
+        T = R.tests();
 
         model = new CpModel();
-        overlaps = new Literal[M][M];
-        for (int m1 = 0; m1 < M; m1++) {
-            // mutant always overlaps with itself
-            overlaps[m1][m1] = model.trueLiteral();
-            for (int m2 = m1 + 1; m2 < M; m2++) {
-                for (int t = 0; t < T; t++) {
-                    if (R[m1][t] && R[m2][t]) {
-                        // overlaps(m1m2) -> overlaps(m2m1)
-                        overlaps[m1][m2] = model.trueLiteral();
-                        overlaps[m2][m1] = overlaps[m1][m2];
-                        break;
-                    }
-                    // !overlaps(m1m2) -> !overlaps(m2m1)
-                    overlaps[m1][m2] = model.falseLiteral();
-                    overlaps[m2][m1] = overlaps[m1][m2];
-                }
+        var conflicts = input.getConflictGraph();
+        metrics.conflicts = conflicts.edges();
+        cliques = maximalCliques(conflicts);
+        metrics.cliques = cliques.size();
+        setupSymmetryOrder();
+        // the pinned clique is at least as large as the largest number of mutants reaching a single test
+        lowerBound = Math.max(pinnedClique.length, LowerBound.counting(M, input.maxGroupSize, input.fixedGroupSize));
+    }
+
+    private int lowerBound;
+    private int[] pinnedClique;
+    private int[] position;
+    /**
+     * Orders the mutants to break the group permutation symmetry: the largest clique comes first and is pinned to
+     * groups 0..q-1, the remaining mutants follow in input order. The mutant at position p may only join groups
+     * 0..p, which every solution satisfies after relabelling its groups in order of first appearance.
+     */
+    private void setupSymmetryOrder() {
+        pinnedClique = cliques.stream().max(Comparator.comparingInt((int[] c) -> c.length)).orElse(new int[0]);
+        position = new int[M];
+        Arrays.fill(position, -1);
+        int next = 0;
+        for (int m : pinnedClique) {
+            position[m] = next++;
+        }
+        for (int m = 0; m < M; m++) {
+            if (position[m] < 0) position[m] = next++;
+        }
+    }
+
+    /**
+     * Relabels groups in order of first appearance along the symmetry order.
+     */
+    private int[] canonicalGroups(int[] groupOf) {
+        int[] order = new int[M];
+        for (int m = 0; m < M; m++) {
+            order[position[m]] = m;
+        }
+        int[] relabel = new int[M];
+        Arrays.fill(relabel, -1);
+        int next = 0;
+        int[] result = new int[M];
+        for (int m : order) {
+            if (relabel[groupOf[m]] < 0) relabel[groupOf[m]] = next++;
+            result[m] = relabel[groupOf[m]];
+        }
+        return result;
+    }
+
+    /**
+     * Every test clique of the {@link ConflictGraph} is greedily extended into a maximal clique, duplicates are dropped.
+     */
+    private List<int[]> maximalCliques(ConflictGraph conflicts) {
+        List<int[]> candidates = new ArrayList<>();
+        for (int t = 0; t < T; t++) {
+            if (conflicts.postingSize(t) >= 2) candidates.add(conflicts.mutantsOf(t));
+        }
+        candidates.sort(Comparator.comparingInt((int[] c) -> -c.length));
+
+        Set<List<Integer>> seen = new HashSet<>();
+        List<int[]> result = new ArrayList<>();
+        for (var clique : candidates) {
+            // mutants that conflict with every member of the clique
+            var extensions = conflicts.neighbours(clique[0]);
+            for (int m : clique) {
+                extensions = conflicts.retainNeighbours(extensions, m);
+            }
+            List<Integer> members = new ArrayList<>(Arrays.stream(clique).boxed().toList());
+            while (extensions.length > 0) {
+                int m = extensions[0];
+                members.add(m);
+                extensions = conflicts.retainNeighbours(extensions, m);
+            }
+            members.sort(null);
+            if (seen.add(members)) {
+                result.add(members.stream().mapToInt(Integer::intValue).toArray());
             }
         }
+        return result;
     }
 
+    private int[] upperBoundGroups;
+    private int K;
     private BoolVar[][] groupMatrix;
+    private BoolVar[][] groupMembers;
     @Override
     protected void setupVariables() {
-        groupMatrix = new BoolVar[M][M];
-        // init variables
-        for (int m = 0; m < M; m++) {
-            for (int g = 0; g < M; g++) {
+        // the number of groups is capped by the number of groups of the heuristic, which starts from the provided hint
+        // when that is better, and which is also the initial hint
+        upperBoundGroups = canonicalGroups(new DsaturSolver().assign(input));
+        K = countGroups(upperBoundGroups);
+        groupMatrix = new BoolVar[K][M];
+        groupMembers = new BoolVar[K][];
+        // init variables, a mutant has no variable for groups beyond its position
+        for (int g = 0; g < K; g++) {
+            List<BoolVar> members = new ArrayList<>();
+            for (int m = 0; m < M; m++) {
+                if (g > position[m]) continue;
                 groupMatrix[g][m] = model.newBoolVar("G" + g + "M" + m);
+                members.add(groupMatrix[g][m]);
             }
+            groupMembers[g] = members.toArray(BoolVar[]::new);
         }
     }
 
@@ -63,110 +178,233 @@ public class CpModelSolver extends ASolver {
     protected void setupConstraints() {
         // each mutant belongs to exactly 1 group
         for (int m = 0; m < M; m++) {
-            List<Literal> mutant = new ArrayList<>(M);
-            for (int g = 0; g < M; g++) {
-                mutant.add(groupMatrix[g][m]);
+            List<Literal> mutant = new ArrayList<>(K);
+            for (int g = 0; g < K; g++) {
+                if (groupMatrix[g][m] != null) mutant.add(groupMatrix[g][m]);
             }
             model.addExactlyOne(mutant);
         }
 
+        // members of the pinned clique are all in different groups anyway
+        for (int i = 0; i < pinnedClique.length; i++) {
+            model.addEquality(groupMatrix[i][pinnedClique[i]], 1);
+        }
+
         // imposes a constraint on the maximum number of mutant within a group
         if (input.maxGroupSize > 0) {
-            for (int g = 0; g < M; g++) {
-                model.addLessOrEqual(LinearExpr.sum(groupMatrix[g]), input.maxGroupSize);
+            for (int g = 0; g < K; g++) {
+                model.addLessOrEqual(LinearExpr.sum(groupMembers[g]), input.maxGroupSize);
             }
         }
 
         if (input.fixedGroupSize == 1) {
             // this is useless, will yield identity matrix
-            for (int g = 0; g < M; g++) {
-                model.addEquality(LinearExpr.sum(groupMatrix[g]), 1);
+            for (int g = 0; g < K; g++) {
+                model.addLessOrEqual(LinearExpr.sum(groupMembers[g]), 1);
             }
         } else if (input.fixedGroupSize > 1) {
-            for (int g = 0; g < M; g++) {
-                // sum = fixedGroupSize || sum = 1
-                var sum = LinearExpr.sum(groupMatrix[g]);
+            for (int g = 0; g < K; g++) {
+                // sum = fixedGroupSize || sum <= 1
+                var sum = LinearExpr.sum(groupMembers[g]);
                 var reify = model.newBoolVar("reifyFixedGroup" + g);
                 model.addLessOrEqual(sum, 1).onlyEnforceIf(reify);
                 model.addEquality(sum, input.fixedGroupSize).onlyEnforceIf(reify.not());
             }
         }
 
-        // every mutant that belongs to the same group should not have overlapping tests (unless it is the same mutant)
-        for (int g = 0; g < M; g++) {
-            for (int m1 = 0; m1 < M; m1++) {
-                var l1 = groupMatrix[g][m1];
-                for (int m2 = 0; m2 < M; m2++) {
-                    if (m1 == m2) continue;
-                    var l2 = groupMatrix[g][m2];
-                    var hasOverlap = overlaps[m1][m2];
-                    // if two mutants have overlapping tests, then at most 1 of them can be true
-                    model.addLessOrEqual(
-                                    LinearExpr.sum(new LinearArgument[]{l1, l2}), 1)
-                            .onlyEnforceIf(hasOverlap);
+        // mutants that belong to the same group should not have overlapping tests, so every group contains at most one
+        // mutant of each clique of overlapping mutants
+        for (int g = 0; g < K; g++) {
+            for (int[] clique : cliques) {
+                List<Literal> members = new ArrayList<>(clique.length);
+                for (int m : clique) {
+                    if (groupMatrix[g][m] != null) members.add(groupMatrix[g][m]);
                 }
+                if (members.size() > 1) model.addAtMostOne(members);
             }
         }
     }
 
+    private BoolVar[] groupUsed;
+    /**
+     * The number of used groups is not minimized by an objective, instead {@link #solve()} repeatedly forbids the
+     * last used group and re-solves for feasibility. Used groups are ordered so forbidding group k caps the number of
+     * groups at k.
+     */
     @Override
     protected void createObjective() {
-        LinearExprBuilder obj = LinearExpr.newBuilder();
-        for (int g = 0; g < M; g++) {
+        groupUsed = new BoolVar[K];
+        for (int g = 0; g < K; g++) {
             var gHasMutants = model.newBoolVar("G" + g + "+");
             var gHasNoMutants = gHasMutants.not();
-            var sum = LinearExpr.sum(groupMatrix[g]);
+            var sum = LinearExpr.sum(groupMembers[g]);
             model.addEquality(sum, 0).onlyEnforceIf(gHasNoMutants);
             model.addGreaterThan(sum, 0).onlyEnforceIf(gHasMutants);
-            obj.addTerm(gHasMutants, 1);
+            groupUsed[g] = gHasMutants;
+            if (g > 0) {
+                model.addImplication(groupUsed[g], groupUsed[g - 1]);
+            }
+        }
+        // groups below the lower bound are always used
+        for (int g = 0; g < Math.min(lowerBound, K); g++) {
+            model.addEquality(groupUsed[g], 1);
         }
-
-        model.minimize(obj);
     }
 
-    private void addHints() {
-        for (int g = 0; g < groupMatrix.length; g++) {
-            for (int m = 0; m < groupMatrix.length; m++) {
-                model.addHint(groupMatrix[g][m], g == m ? 1 : 0);
+    /**
+     * Hints the given assignment, mutants in groups that are no longer allowed are left to the solver.
+     */
+    private void addHints(int[] groupOf, int allowedGroups) {
+        model.clearHints();
+        for (int m = 0; m < M; m++) {
+            if (groupOf[m] >= allowedGroups) continue;
+            for (int g = 0; g < allowedGroups; g++) {
+                if (groupMatrix[g][m] == null) continue;
+                model.addHint(groupMatrix[g][m], g == groupOf[m] ? 1 : 0);
             }
         }
     }
 
-    private CpSolver solver;
-    private CpSolverStatus status;
+    private static final double MAX_TIME_IN_SECONDS = 90;
+    private static final double SMART_BAIL_PLATEAU_SECONDS = 10;
+
+    private int[] bestGroups;
+    private SolverStatus status;
+    private long solveStart;
+    private final List<Incumbent> progress = new ArrayList<>();
     @Override
     protected void solve() {
-        //this.addHints();
-        solver = new CpSolver();
-        solver.getParameters().setMaxTimeInSeconds(90);
-        status = solver.solve(model);
+        bestGroups = upperBoundGroups;
+        status = SolverStatus.FEASIBLE;
+        solveStart = System.nanoTime();
+        final long deadline = solveStart + (long) (MAX_TIME_IN_SECONDS * 1e9);
+        synchronized (progress) {
+            progress.clear();
+        }
+        recordIncumbent(bestGroups);
+
+        // smart bail stops a search that stalls unless a plateau was configured explicitly
+        final double plateauSeconds = this.plateauSeconds > 0 || !input.smartBail ? this.plateauSeconds : SMART_BAIL_PLATEAU_SECONDS;
+        int groups = K;
+        while (true) {
+            if (groups <= Math.max(1, lowerBound)) {
+                // the lower bound is reached, zero or one group cannot be improved upon either
+                status = SolverStatus.OPTIMAL;
+                break;
+            }
+            if (relativeGap > 0 && groups - lowerBound <= relativeGap * groups) {
+                System.out.printf("Stopping at %s groups, within a gap of %s of the lower bound %s%n", groups, relativeGap, lowerBound);
+                break;
+            }
+
+            double remainingSeconds = input.timeAllocation != null
+                    ? input.timeAllocation.remainingSeconds()
+                    : (deadline - System.nanoTime()) / 1e9;
+            if (remainingSeconds <= 0) break;
+
+            // tighten: at most groups - 1 groups may be used
+            model.addEquality(groupUsed[groups - 1], 0);
+            addHints(bestGroups, groups - 1);
+
+            // an iteration that does not find an improvement within the plateau ends the search
+            final boolean plateauLimited = plateauSeconds > 0 && plateauSeconds < remainingSeconds;
+            var solver = new CpSolver();
+            solver.getParameters().setMaxTimeInSeconds(plateauLimited ? plateauSeconds : remainingSeconds);
+            if (numWorkers > 0) {
+                solver.getParameters().setNumWorkers(numWorkers);
+            }
+            // the search log is only read to time the presolve
+            final long[] presolveStart = {0};
+            solver.getParameters().setLogSearchProgress(true).setLogToStdout(false);
+            solver.setLogCallback(line -> {
+                if (line.startsWith("Starting presolve")) {
+                    presolveStart[0] = System.nanoTime();
+                } else if (line.startsWith("Presolved ") && presolveStart[0] > 0) {
+                    metrics.cpSatPresolveSeconds += (System.nanoTime() - presolveStart[0]) / 1e9;
+                }
+            });
+            var iterationStatus = solver.solve(model, new CpSolverSolutionCallback() {
+                @Override
+                public void onSolutionCallback() {
+                    recordIncumbent(readGroups(this::booleanValue));
+                }
+            });
+            recordStatistics(solver.response());
+
+            if (iterationStatus == CpSolverStatus.OPTIMAL || iterationStatus == CpSolverStatus.FEASIBLE) {
+                bestGroups = readGroups(solver::booleanValue);
+                groups = countGroups(bestGroups);
+            } else if (iterationStatus == CpSolverStatus.INFEASIBLE) {
+                // no solution with fewer groups exists
+                status = SolverStatus.OPTIMAL;
+                break;
+            } else {
+                if (!SolverStatus.convert(iterationStatus).isValid()) {
+                    status = SolverStatus.INVALID;
+                } else if (plateauLimited) {
+                    System.out.printf("No improvement within %s seconds, stopping at %s groups%n", plateauSeconds, groups);
+                }
+                break;
+            }
+        }
+    }
+
+    private void recordStatistics(CpSolverResponse response) {
+        metrics.cpSatSolves++;
+        metrics.cpSatConflicts += response.getNumConflicts();
+        metrics.cpSatBranches += response.getNumBranches();
+        metrics.cpSatWallSeconds += response.getWallTime();
+        metrics.cpSatDeterministicTime += response.getDeterministicTime();
+    }
+
+    private void recordIncumbent(int[] groupOf) {
+        var incumbent = new Incumbent(countGroups(groupOf), lowerBound, System.nanoTime() - solveStart);
+        synchronized (progress) {
+            if (progress.isEmpty() || incumbent.groups < progress.get(progress.size() - 1).groups) {
+                progress.add(incumbent);
+            }
+        }
+    }
+
+    private int[] readGroups(Predicate<Literal> isTrue) {
+        int[] groupOf = new int[M];
+        for (int m = 0; m < M; m++) {
+            for (int g = 0; g < K; g++) {
+                if (groupMatrix[g][m] != null && isTrue.test(groupMatrix[g][m])) {
+                    groupOf[m] = g;
+                    break;
+                }
+            }
+        }
+        return groupOf;
+    }
+
+    private FeasibleSolution toSolution(int[] groupOf) {
+        var groups = new ArrayList<List<String>>();
+        for (int g = 0; g < countGroups(groupOf); g++) {
+            groups.add(new ArrayList<>());
+        }
+        for (int m = 0; m < M; m++) {
+            groups.get(groupOf[m]).add(input.getMutantId(m));
+        }
+        groups.removeIf(List::isEmpty);
+        return new FeasibleSolution(groups);
     }
 
     @Override
     protected SolverResult formulateResult() {
-        if (status == CpSolverStatus.OPTIMAL || status == CpSolverStatus.FEASIBLE) {
-            System.out.println("Type: " + status + ", Objective function value: " + solver.objectiveValue());
-            var groups = new ArrayList<List<String>>();
-            for (int g = 0; g < M; g++) {
-                var group = new ArrayList<String>();
-                StringBuilder groupBitString = new StringBuilder("g" + g + ": ");
-                for (int m = 0; m < M; m++) {
-                    if (solver.booleanValue(groupMatrix[g][m])) {
-                        group.add(input.getMutantId(m));
-                        groupBitString.append('1');
-                    } else {
-                        groupBitString.append('0');
-                    }
-                }
-                if (!group.isEmpty()) {
-                    //System.out.println(groupBitString);
-                    groups.add(group);
-                }
+        metrics.variables = model.model().getVariablesCount();
+        metrics.constraints = model.model().getConstraintsCount();
+        if (status.hasSolution()) {
+            var summary = new StringBuilder("Type: " + status + ", Number of groups: " + countGroups(bestGroups) + ", Lower bound: " + lowerBound);
+            for (var incumbent : progress) {
+                summary.append(System.lineSeparator()).append("  Incumbent: ").append(incumbent);
             }
-            return new SolverResult(SolverStatus.convert(status), new FeasibleSolution(groups));
+            System.out.println(summary);
+            return new SolverResult(status, toSolution(bestGroups), lowerBound);
         } else {
             System.err.println("No solution found.");
-            return new SolverResult(SolverStatus.convert(status), null);
+            return new SolverResult(status, null, lowerBound);
         }
     }
 }
@@ -0,0 +1,193 @@
+package solver;
+
+import model.FeasibleSolution;
+import model.SolverInput;
+import model.SolverMetrics;
+import model.SolverResult;
+import model.SolverStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Greedy heuristic that colours the conflict graph using DSATUR: the mutant with the most distinct groups among its
+ * overlapping mutants is assigned first, to the lowest group it fits in. The result is feasible but not necessarily
+ * optimal, which makes it suitable for quick feedback and as a warm start for {@link CpModelSolver}. A hint with
+ * fewer groups than the heuristic is used instead.
+ */
+public class DsaturSolver extends ASolver {
+    private int M;
+    private int[][] neighbours;
+
+    @Override
+    protected void setupAxioms() {
+        var conflicts = input.getConflictGraph();
+        M = conflicts.mutants();
+        neighbours = new int[M][];
+        for (int m = 0; m < M; m++) {
+            neighbours[m] = conflicts.neighbours(m);
+        }
+        metrics.conflicts = conflicts.edges();
+    }
+
+    private int[] groupOf;
+    private BitSet[] neighbourGroups;
+    private List<Integer> groupSizes;
+    @Override
+    protected void setupVariables() {
+        groupOf = new int[M];
+        neighbourGroups = new BitSet[M];
+        for (int m = 0; m < M; m++) {
+            groupOf[m] = -1;
+            neighbourGroups[m] = new BitSet();
+        }
+        groupSizes = new ArrayList<>();
+    }
+
+    private int capacity;
+    @Override
+    protected void setupConstraints() {
+        capacity = input.getCapacity();
+    }
+
+    @Override
+    protected void createObjective() {
+        // the heuristic has no objective, it implicitly minimizes the number of groups
+    }
+
+    @Override
+    protected void solve() {
+        // entries are {saturation, degree, mutant}, stale entries are skipped when polled
+        PriorityQueue<int[]> queue = new PriorityQueue<>((a, b) -> a[0] != b[0] ? b[0] - a[0] : a[1] != b[1] ? b[1] - a[1] : a[2] - b[2]);
+        for (int m = 0; m < M; m++) {
+            queue.add(new int[]{0, neighbours[m].length, m});
+        }
+
+        while (!queue.isEmpty()) {
+            int[] entry = queue.poll();
+            int m = entry[2];
+            if (groupOf[m] >= 0 || entry[0] != neighbourGroups[m].cardinality()) continue;
+
+            int g = lowestAvailableGroup(m);
+            groupOf[m] = g;
+            groupSizes.set(g, groupSizes.get(g) + 1);
+
+            for (int n : neighbours[m]) {
+                if (groupOf[n] < 0 && !neighbourGroups[n].get(g)) {
+                    neighbourGroups[n].set(g);
+                    queue.add(new int[]{neighbourGroups[n].cardinality(), neighbours[n].length, n});
+                }
+            }
+        }
+
+        if (input.fixedGroupSize > 1) {
+            splitIncompleteGroups();
+        }
+
+        // a known solution with fewer groups, such as a cached one, replaces the heuristic
+        var hintedGroups = hintedGroups();
+        if (hintedGroups != null && countGroups(hintedGroups) < countGroups(groupOf)) {
+            groupOf = hintedGroups;
+        }
+    }
+
+    /**
+     * Converts the hint of the input into a group assignment, or null if there is no usable hint.
+     */
+    private int[] hintedGroups() {
+        if (input.hint == null) return null;
+
+        Map<String, Integer> mutantIndex = new HashMap<>();
+        for (int m = 0; m < M; m++) {
+            mutantIndex.put(input.getMutantId(m), m);
+        }
+
+        int[] groupOf = new int[M];
+        Arrays.fill(groupOf, -1);
+        int groups = 0;
+        for (var hintGroup : input.hint.getGroups()) {
+            List<Integer> members = new ArrayList<>();
+            for (String id : hintGroup) {
+                Integer m = mutantIndex.get(id);
+                if (m == null) continue;
+                for (int other : members) {
+                    if (Arrays.binarySearch(neighbours[m], other) >= 0) return null;
+                }
+                members.add(m);
+            }
+            if (members.isEmpty()) continue;
+            boolean validSize = (input.maxGroupSize <= 0 || members.size() <= input.maxGroupSize)
+                    && (input.fixedGroupSize <= 0 || members.size() == 1 || members.size() == input.fixedGroupSize);
+            if (!validSize) return null;
+            for (int m : members) {
+                groupOf[m] = groups;
+            }
+            groups++;
+        }
+        for (int g : groupOf) {
+            if (g < 0) return null;
+        }
+        return groupOf;
+    }
+
+    private int lowestAvailableGroup(int m) {
+        int g = neighbourGroups[m].nextClearBit(0);
+        while (g < groupSizes.size() && groupSizes.get(g) >= capacity) {
+            g = neighbourGroups[m].nextClearBit(g + 1);
+        }
+        if (g >= groupSizes.size()) {
+            g = groupSizes.size();
+            groupSizes.add(0);
+        }
+        return g;
+    }
+
+    /**
+     * Groups that did not reach the fixed group size are split into singletons.
+     */
+    private void splitIncompleteGroups() {
+        int next = 0;
+        int[] relabel = new int[groupSizes.size()];
+        for (int g = 0; g < groupSizes.size(); g++) {
+            relabel[g] = groupSizes.get(g) == input.fixedGroupSize ? next++ : -1;
+        }
+        for (int m = 0; m < M; m++) {
+            groupOf[m] = relabel[groupOf[m]] >= 0 ? relabel[groupOf[m]] : next++;
+        }
+    }
+
+    @Override
+    protected SolverResult formulateResult() {
+        var groups = new ArrayList<List<String>>();
+        for (int m = 0; m < M; m++) {
+            while (groups.size() <= groupOf[m]) {
+                groups.add(new ArrayList<>());
+            }
+            groups.get(groupOf[m]).add(input.getMutantId(m));
+        }
+        // the heuristic is optimal when it reaches the lower bound
+        final int lowerBound = LowerBound.of(input);
+        var status = groups.size() <= lowerBound ? SolverStatus.OPTIMAL : SolverStatus.FEASIBLE;
+        System.out.println("Type: " + status + ", Number of groups: " + groups.size() + ", Lower bound: " + lowerBound);
+        return new SolverResult(status, new FeasibleSolution(groups), lowerBound);
+    }
+
+    /**
+     * Runs the heuristic and returns the group index of every mutant, group indices are consecutive starting at 0.
+     */
+    public int[] assign(SolverInput input) {
+        this.input = input;
+        this.metrics = new SolverMetrics();
+        setupAxioms();
+        setupVariables();
+        setupConstraints();
+        createObjective();
+        solve();
+        return groupOf;
+    }
+}
@@ -0,0 +1,196 @@
+package solver;
+
+import model.FeasibleSolution;
+import model.IndexedInput;
+import model.SolverResult;
+import model.SolverStatus;
+import model.TimedSolverResult;
+import model.Timer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges groups of different partitions after aggregation. Partitions are solved independently, so groups of
+ * different partitions that reach disjoint tests are never combined by the solvers. The groups of the aggregated
+ * solution are packed first-fit decreasing into merged groups, after which a local search repeatedly tries to empty
+ * the smallest merged group by moving its groups into the others. With a fixed group size only the groups below the
+ * fixed size are combined, into groups of exactly the fixed size. Merging stops when the time budget runs out.
+ */
+public class GroupMerger {
+    private final double timeBudgetSeconds;
+
+    /**
+     * @param timeBudgetSeconds time allowed for merging, 0 disables merging
+     */
+    public GroupMerger(double timeBudgetSeconds) {
+        this.timeBudgetSeconds = Math.max(0, timeBudgetSeconds);
+    }
+
+    /**
+     * Merges the groups of the aggregated result and replaces its lower bound, which only covers single partitions, by
+     * a bound over the whole input. With a fixed group size that bound is computed from the whole input alone. The result is optimal exactly when its groups reach that bound.
+     */
+    public TimedSolverResult merge(IndexedInput input, TimedSolverResult result) {
+        var solverResult = result.getSolverResult();
+        var solution = solverResult.solution;
+        var timer = result.getTimer();
+        final int capacity = input.getCapacity();
+        if (timeBudgetSeconds > 0 && capacity > 1 && solution != null && solution.getGroups().size() > 1) {
+            final long start = System.nanoTime();
+            var merged = mergeGroups(input, solution, capacity, start + (long) (timeBudgetSeconds * 1e9));
+            final long duration = System.nanoTime() - start;
+            System.out.printf("Merged %s groups across partitions into %s in %s ms%n",
+                    solution.getGroups().size(), merged.getGroups().size(), duration / 1_000_000);
+            solution = merged;
+            timer = Timer.aggregate(List.of(timer, new Timer(0, 0, 0, 0, duration)));
+        }
+
+        // partition bounds only hold for the whole input without a fixed group size, see SolverResult.aggregate
+        final int partitionBound = input.fixedSize > 0 ? 0 : solverResult.lowerBound;
+        final int lowerBound = Math.max(partitionBound, LowerBound.of(input));
+        var status = solverResult.status;
+        if (status.hasSolution() && solution != null) {
+            status = solution.getGroups().size() <= lowerBound ? SolverStatus.OPTIMAL : SolverStatus.FEASIBLE;
+        }
+        return new TimedSolverResult(new SolverResult(status, solution, lowerBound), timer, result.getMetrics());
+    }
+
+    /**
+     * Returns the merged solution, or the given one when merging does not reduce the number of groups.
+     */
+    private static FeasibleSolution mergeGroups(IndexedInput input, FeasibleSolution solution, int capacity, long deadline) {
+        Map<String, Integer> mutantIndex = new HashMap<>(input.size() * 2);
+        for (int m = 0; m < input.size(); m++) {
+            mutantIndex.put(input.mutantIds[m], m);
+        }
+        List<TestGroup> groups = new ArrayList<>();
+        for (var group : solution.getGroups()) {
+            var testGroup = new TestGroup();
+            for (String id : group) {
+                Integer m = mutantIndex.get(id);
+                if (m == null) return solution;
+                testGroup.add(m, input.mutantTests[m]);
+            }
+            groups.add(testGroup);
+        }
+
+        var merged = input.fixedSize > 1 ? mergeToFixedSize(groups, capacity, deadline) : mergeUpTo(groups, capacity, deadline);
+        if (merged.size() >= groups.size()) {
+            return solution;
+        }
+        return new FeasibleSolution(merged.stream().map(g -> g.mutants.stream().map(m -> input.mutantIds[m]).toList()).toList());
+    }
+
+    /**
+     * A merged group together with the groups it was formed from.
+     */
+    private static class Bin {
+        final List<TestGroup> parts = new ArrayList<>();
+        TestGroup merged = new TestGroup();
+
+        boolean fits(TestGroup group, int capacity) {
+            return merged.size() + group.size() <= capacity && !merged.overlaps(group);
+        }
+
+        void add(TestGroup group) {
+            parts.add(group);
+            merged.addAll(group);
+        }
+
+        void remove(TestGroup group) {
+            parts.remove(group);
+            merged = new TestGroup();
+            parts.forEach(merged::addAll);
+        }
+    }
+
+    private static List<TestGroup> mergeUpTo(List<TestGroup> groups, int capacity, long deadline) {
+        List<TestGroup> order = new ArrayList<>(groups);
+        order.sort(Comparator.comparingInt(TestGroup::size).thenComparingInt(g -> g.tests.cardinality()).reversed());
+        List<Bin> bins = new ArrayList<>();
+        for (var group : order) {
+            Bin target = null;
+            for (int b = 0; b < bins.size() && target == null; b++) {
+                if (bins.get(b).fits(group, capacity)) target = bins.get(b);
+            }
+            if (target == null) {
+                target = new Bin();
+                bins.add(target);
+            }
+            target.add(group);
+        }
+
+        boolean improved = true;
+        while (improved && System.nanoTime() < deadline) {
+            improved = false;
+            bins.sort(Comparator.comparingInt(b -> b.merged.size()));
+            for (int b = 0; b < bins.size() && !improved && System.nanoTime() < deadline; b++) {
+                improved = empty(bins, b, capacity);
+            }
+        }
+        return bins.stream().map(b -> b.merged).toList();
+    }
+
+    /**
+     * Moves every part of the bin into another bin, the moves are undone unless all parts found a place.
+     */
+    private static boolean empty(List<Bin> bins, int index, int capacity) {
+        var source = bins.get(index);
+        List<Bin> targets = new ArrayList<>();
+        for (var part : source.parts) {
+            Bin target = null;
+            for (int b = 0; b < bins.size() && target == null; b++) {
+                if (b != index && bins.get(b).fits(part, capacity)) target = bins.get(b);
+            }
+            if (target == null) {
+                for (int i = 0; i < targets.size(); i++) {
+                    targets.get(i).remove(source.parts.get(i));
+                }
+                return false;
+            }
+            target.add(part);
+            targets.add(target);
+        }
+        bins.remove(index);
+        return true;
+    }
+
+    /**
+     * Combines groups below the fixed size into groups of exactly the fixed size, groups that cannot be completed are
+     * kept as they are. The fixed size is the capacity, it never exceeds the maximum group size.
+     */
+    private static List<TestGroup> mergeToFixedSize(List<TestGroup> groups, int fixedSize, long deadline) {
+        List<TestGroup> result = new ArrayList<>();
+        List<TestGroup> incomplete = new ArrayList<>();
+        for (var group : groups) {
+            (group.size() < fixedSize ? incomplete : result).add(group);
+        }
+        incomplete.sort(Comparator.comparingInt((TestGroup g) -> g.tests.cardinality()).reversed());
+
+        boolean[] used = new boolean[incomplete.size()];
+        for (int i = 0; i < incomplete.size(); i++) {
+            if (used[i]) continue;
+            var bin = new Bin();
+            bin.add(incomplete.get(i));
+            List<Integer> members = new ArrayList<>(List.of(i));
+            for (int j = i + 1; j < incomplete.size() && bin.merged.size() < fixedSize && System.nanoTime() < deadline; j++) {
+                if (!used[j] && bin.fits(incomplete.get(j), fixedSize)) {
+                    bin.add(incomplete.get(j));
+                    members.add(j);
+                }
+            }
+            if (bin.merged.size() == fixedSize) {
+                members.forEach(j -> used[j] = true);
+                result.add(bin.merged);
+            } else {
+                used[i] = true;
+                result.add(incomplete.get(i));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,141 @@
+package solver;
+
+import model.Converter;
+import model.FeasibleSolution;
+import model.IndexedInput;
+import model.Partitioner;
+import model.SolverInput;
+import model.SolverResult;
+import model.SolverStatus;
+import model.TimedSolverResult;
+import model.Timer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Re-groups an input starting from the solution of a previous run. Groups of the previous solution are kept as long
+ * as their mutants still exist and do not overlap under the new tests, conflicting mutants are evicted. New and
+ * evicted mutants are first placed into the kept groups with a first-fit repair, only the mutants that do not fit
+ * anywhere are solved from scratch.
+ */
+public class IncrementalSolver {
+    private final SplitSolver solver;
+    private final Partitioner partitioner;
+    private final int splitSize;
+    private int splits;
+
+    public IncrementalSolver(SplitSolver solver, Partitioner partitioner, int splitSize) {
+        this.solver = Objects.requireNonNull(solver);
+        this.partitioner = Objects.requireNonNull(partitioner);
+        this.splitSize = splitSize;
+    }
+
+    public TimedSolverResult solve(IndexedInput input, FeasibleSolution previous) {
+        final long start = System.nanoTime();
+        final int M = input.size();
+        final int capacity = input.getCapacity();
+
+        Map<String, Integer> mutantIndex = new HashMap<>(M * 2);
+        for (int m = 0; m < M; m++) {
+            mutantIndex.put(input.mutantIds[m], m);
+        }
+
+        boolean[] placed = new boolean[M];
+        List<TestGroup> groups = new ArrayList<>();
+        int evicted = 0;
+        for (var previousGroup : previous.getGroups()) {
+            var group = new TestGroup();
+            for (String id : previousGroup) {
+                Integer m = mutantIndex.get(id);
+                if (m == null || placed[m]) continue;
+                if (group.size() < capacity && !group.overlaps(input.mutantTests[m])) {
+                    group.add(m, input.mutantTests[m]);
+                    placed[m] = true;
+                } else {
+                    evicted++;
+                }
+            }
+            if (input.fixedSize > 1 && group.size() > 1 && group.size() != input.fixedSize) {
+                // the group no longer has the fixed size, its mutants are placed again
+                evicted += group.size();
+                group.mutants.forEach(m -> placed[m] = false);
+            } else if (group.size() > 0) {
+                groups.add(group);
+            }
+        }
+        final int kept = groups.size();
+
+        // first-fit repair of new and evicted mutants into the kept groups, with a fixed group size only a group one
+        // mutant short of the fixed size may take a mutant
+        List<Integer> unplaced = new ArrayList<>();
+        int repaired = 0;
+        for (int m = 0; m < M; m++) {
+            if (placed[m]) continue;
+            TestGroup target = null;
+            for (int g = 0; g < kept && target == null; g++) {
+                var group = groups.get(g);
+                boolean fits = input.fixedSize > 1
+                        ? group.size() + 1 == input.fixedSize && input.fixedSize <= capacity
+                        : group.size() < capacity;
+                if (fits && !group.overlaps(input.mutantTests[m])) {
+                    target = group;
+                }
+            }
+            if (target != null) {
+                target.add(m, input.mutantTests[m]);
+                repaired++;
+            } else {
+                unplaced.add(m);
+            }
+        }
+
+        List<List<String>> solution = new ArrayList<>();
+        for (var group : groups) {
+            solution.add(group.mutants.stream().map(m -> input.mutantIds[m]).toList());
+        }
+        final long repairDuration = System.nanoTime() - start;
+        System.out.printf("Kept %s groups of the previous solution, %s mutants were evicted, %s placed by repair and %s remain%n",
+                kept, evicted, repaired, unplaced.size());
+
+        var timer = new Timer(0, 0, 0, 0, repairDuration);
+        splits = 0;
+        final int lowerBound = LowerBound.of(input);
+        if (unplaced.isEmpty()) {
+            return new TimedSolverResult(new SolverResult(SolverStatus.FEASIBLE, new FeasibleSolution(solution), lowerBound), timer);
+        }
+
+        var remaining = subset(input, unplaced);
+        List<SolverInput> solverInput = Converter.toSplitSolverInput(remaining, splitSize, partitioner);
+        splits = solverInput.size();
+        var result = solver.solve(solverInput);
+        timer = Timer.aggregate(List.of(timer, result.getTimer()));
+        if (result.getSolverResult().solution == null) {
+            return new TimedSolverResult(result.getSolverResult(), timer, result.getMetrics());
+        }
+
+        solution.addAll(result.getSolverResult().solution.getGroups());
+        return new TimedSolverResult(new SolverResult(SolverStatus.FEASIBLE, new FeasibleSolution(solution), lowerBound), timer, result.getMetrics());
+    }
+
+    /**
+     * @return the number of partitions that had to be solved from scratch during the last run
+     */
+    public int getSplits() {
+        return splits;
+    }
+
+    private static IndexedInput subset(IndexedInput input, List<Integer> mutants) {
+        return new IndexedInput(
+                mutants.stream().map(m -> input.mutantIds[m]).toArray(String[]::new),
+                mutants.stream().map(m -> input.mutantTests[m]).toArray(int[][]::new),
+                input.testCount,
+                input.smartBail,
+                input.fixedSize,
+                input.maximumSize
+        );
+    }
+}
@@ -0,0 +1,305 @@
+package solver;
+
+import model.ConflictGraph;
+import model.FeasibleSolution;
+import model.SolverInput;
+import model.SolverMetrics;
+import model.SolverResult;
+import model.SolverStatus;
+import model.TimedSolverResult;
+import model.Timer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Shrinks the input before handing it to the delegate and maps the solution back to all mutants:
+ * <ul>
+ *     <li>mutants without conflicts, such as mutants reaching no tests, are added to any group with room;</li>
+ *     <li>mutants reaching exactly the same tests are collapsed into the first of them, the other twins are
+ *     reinserted into distinct groups;</li>
+ *     <li>without a maximum group size, mutants conflicting with fewer mutants than the largest test clique are
+ *     peeled off repeatedly. Reinserted in reverse order they always find a group none of their conflicts is in,
+ *     because the clique is never peeled.</li>
+ * </ul>
+ * Only twins may need more groups than the delegate formed, the kernel is then solved again with the twins kept and
+ * the better solution is used. Fixed group sizes are passed to the delegate as is.
+ */
+public class KernelSolver implements Solver {
+    private final Solver solver;
+
+    public KernelSolver(Solver solver) {
+        this.solver = Objects.requireNonNull(solver);
+    }
+
+    @Override
+    public TimedSolverResult solve(SolverInput input) {
+        if (input.fixedGroupSize > 0) {
+            return solver.solve(input);
+        }
+
+        var graph = input.getConflictGraph();
+        final int M = graph.mutants();
+
+        // mutants are represented by the first mutant reaching the same tests, -1 for mutants without conflicts
+        int[] representative = new int[M];
+        List<List<Integer>> members = new ArrayList<>(M);
+        Map<Tests, Integer> representatives = new HashMap<>();
+        List<Integer> unconstrained = new ArrayList<>();
+        for (int m = 0; m < M; m++) {
+            members.add(null);
+            if (graph.degree(m) == 0) {
+                representative[m] = -1;
+                unconstrained.add(m);
+                continue;
+            }
+            final int mutant = m;
+            representative[m] = representatives.computeIfAbsent(new Tests(input.reachabilityMatrix.testsOf(m)), t -> mutant);
+            if (members.get(representative[m]) == null) {
+                members.set(representative[m], new ArrayList<>());
+            }
+            members.get(representative[m]).add(m);
+        }
+
+        var peeled = input.maxGroupSize > 0 ? new ArrayList<Integer>() : peel(graph, representative, members);
+        boolean[] isPeeled = new boolean[M];
+        peeled.forEach(r -> isPeeled[r] = true);
+        int[] kernel = representatives.values().stream().filter(r -> !isPeeled[r]).mapToInt(Integer::intValue).sorted().toArray();
+        int[] twins = representatives.values().stream().filter(r -> !isPeeled[r])
+                .flatMap(r -> members.get(r).stream().skip(1)).mapToInt(Integer::intValue).sorted().toArray();
+        if (kernel.length == M) {
+            return solver.solve(input);
+        }
+        System.out.printf("Kernel: %s of %s mutants remain (%s without conflicts, %s twins, %s peeled)%n",
+                kernel.length, M, unconstrained.size(), M - unconstrained.size() - representatives.size(),
+                peeled.stream().mapToInt(r -> members.get(r).size()).sum());
+
+        final int capacity = input.getCapacity();
+        List<TimedSolverResult> results = new ArrayList<>();
+        var kernelResult = solveSubset(input, kernel, results);
+        if (kernelResult != null && kernelResult.solution == null) {
+            return withoutSolution(input, kernelResult, results);
+        }
+        var groups = new Groups(input, graph, capacity);
+        int solvedGroups = groups.place(input, kernel, kernelResult);
+        for (int m : twins) {
+            groups.insert(m);
+        }
+
+        if (groups.count() > solvedGroups) {
+            // the twins needed groups the delegate did not plan for, so the twins have to be part of the model
+            System.out.printf("Kernel: twins needed %s extra groups, solving again with the twins kept%n", groups.count() - solvedGroups);
+            int[] expanded = Arrays.stream(new int[][]{kernel, twins}).flatMapToInt(Arrays::stream).sorted().toArray();
+            var expandedResult = solveSubset(input, expanded, results);
+            if (expandedResult.solution != null && expandedResult.solution.getGroups().size() < groups.count()) {
+                kernelResult = expandedResult;
+                groups = new Groups(input, graph, capacity);
+                solvedGroups = groups.place(input, expanded, kernelResult);
+            }
+        }
+
+        for (int i = peeled.size() - 1; i >= 0; i--) {
+            for (int m : members.get(peeled.get(i))) {
+                groups.insert(m);
+            }
+        }
+        for (int m : unconstrained) {
+            groups.insertAnywhere(m);
+        }
+
+        // the kernel is an induced subgraph, so its bound holds for the whole input
+        final int lowerBound = Math.max(kernelResult != null ? kernelResult.lowerBound : 0, LowerBound.of(input));
+        var status = kernelResult != null ? kernelResult.status : SolverStatus.OPTIMAL;
+        if (status == SolverStatus.OPTIMAL && groups.count() > solvedGroups && groups.count() > lowerBound) {
+            status = SolverStatus.FEASIBLE;
+        }
+        if (groups.count() <= lowerBound) {
+            // the rebuilt solution reaches the bound of the whole input
+            status = SolverStatus.OPTIMAL;
+        }
+        var result = new SolverResult(status, groups.toSolution(), lowerBound);
+        return new TimedSolverResult(result, timer(results), List.of(metrics(input, graph, result, results)));
+    }
+
+    /**
+     * Peels representatives whose remaining conflicts, twins included, are fewer than the mutants of the largest test
+     * clique. Returns the peeled representatives in peeling order.
+     */
+    private static List<Integer> peel(ConflictGraph graph, int[] representative, List<List<Integer>> members) {
+        List<Integer> peeled = new ArrayList<>();
+        int largest = -1;
+        for (int t = 0; t < graph.tests(); t++) {
+            if (largest < 0 || graph.postingSize(t) > graph.postingSize(largest)) largest = t;
+        }
+        // without a conflict every mutant is unconstrained already
+        if (largest < 0 || graph.postingSize(largest) < 2) return peeled;
+        final int clique = graph.postingSize(largest);
+
+        final int M = graph.mutants();
+        boolean[] kept = new boolean[M];
+        for (int m : graph.mutantsOf(largest)) {
+            kept[representative[m]] = true;
+        }
+        int[] degree = new int[M];
+        boolean[] removed = new boolean[M];
+        var queue = new ArrayDeque<Integer>();
+        for (int m = 0; m < M; m++) {
+            if (representative[m] != m) continue;
+            degree[m] = graph.degree(m);
+            if (degree[m] < clique && !kept[m]) queue.add(m);
+        }
+        while (!queue.isEmpty()) {
+            int r = queue.poll();
+            if (removed[r]) continue;
+            removed[r] = true;
+            peeled.add(r);
+            for (int m : members.get(r)) {
+                for (int i = 0; i < graph.degree(m); i++) {
+                    int n = graph.neighbour(m, i);
+                    if (representative[n] != n || removed[n] || n == r) continue;
+                    if (--degree[n] < clique && !kept[n]) queue.add(n);
+                }
+            }
+        }
+        return peeled;
+    }
+
+    /**
+     * Solves the given mutants with the delegate, returns null without solving when there are none.
+     */
+    private SolverResult solveSubset(SolverInput input, int[] mutants, List<TimedSolverResult> results) {
+        if (mutants.length == 0) return null;
+        var result = solver.solve(ComponentSolver.subset(input, mutants));
+        results.add(result);
+        return result.getSolverResult();
+    }
+
+    private static TimedSolverResult withoutSolution(SolverInput input, SolverResult kernelResult, List<TimedSolverResult> results) {
+        var result = new SolverResult(kernelResult.status, null, Math.max(kernelResult.lowerBound, LowerBound.of(input)));
+        return new TimedSolverResult(result, timer(results), List.of(metrics(input, input.getConflictGraph(), result, results)));
+    }
+
+    private static Timer timer(List<TimedSolverResult> results) {
+        return Timer.aggregate(results.stream().map(TimedSolverResult::getTimer).toList());
+    }
+
+    private static SolverMetrics metrics(SolverInput input, ConflictGraph graph, SolverResult result, List<TimedSolverResult> results) {
+        var metrics = SolverMetrics.aggregate(results.stream().flatMap(r -> r.getMetrics().stream()).toList());
+        metrics.mutants = graph.mutants();
+        metrics.tests = graph.tests();
+        metrics.conflicts = graph.edges();
+        metrics.groups = result.solution != null ? result.solution.getGroups().size() : 0;
+        metrics.lowerBound = result.lowerBound;
+        metrics.updateDerived();
+        metrics.sampleHeap();
+        return metrics;
+    }
+
+    /**
+     * Groups under construction, mutants are inserted into the lowest group that has room and holds none of their
+     * conflicts.
+     */
+    private static class Groups {
+        private final SolverInput input;
+        private final ConflictGraph graph;
+        private final int capacity;
+        private final int[] groupOf;
+        private final List<Integer> sizes = new ArrayList<>();
+
+        Groups(SolverInput input, ConflictGraph graph, int capacity) {
+            this.input = input;
+            this.graph = graph;
+            this.capacity = capacity;
+            this.groupOf = new int[graph.mutants()];
+            Arrays.fill(groupOf, -1);
+        }
+
+        /**
+         * Takes over the groups of the solution for the given mutants, returns the number of groups.
+         */
+        int place(SolverInput input, int[] mutants, SolverResult result) {
+            if (result == null) return 0;
+            Map<String, Integer> index = new HashMap<>();
+            for (int m : mutants) {
+                index.put(input.getMutantId(m), m);
+            }
+            for (var group : result.solution.getGroups()) {
+                int g = sizes.size();
+                sizes.add(0);
+                for (String id : group) {
+                    assign(index.get(id), g);
+                }
+            }
+            return sizes.size();
+        }
+
+        void insert(int m) {
+            var blocked = new BitSet();
+            for (int i = 0; i < graph.degree(m); i++) {
+                int n = graph.neighbour(m, i);
+                if (groupOf[n] >= 0) blocked.set(groupOf[n]);
+            }
+            int g = blocked.nextClearBit(0);
+            while (g < sizes.size() && sizes.get(g) >= capacity) {
+                g = blocked.nextClearBit(g + 1);
+            }
+            assign(m, g);
+        }
+
+        void insertAnywhere(int m) {
+            int g = 0;
+            while (g < sizes.size() && sizes.get(g) >= capacity) {
+                g++;
+            }
+            assign(m, g);
+        }
+
+        private void assign(int m, int g) {
+            if (g == sizes.size()) sizes.add(0);
+            groupOf[m] = g;
+            sizes.set(g, sizes.get(g) + 1);
+        }
+
+        int count() {
+            return sizes.size();
+        }
+
+        FeasibleSolution toSolution() {
+            List<List<String>> groups = new ArrayList<>();
+            for (int g = 0; g < sizes.size(); g++) {
+                groups.add(new ArrayList<>());
+            }
+            for (int m = 0; m < groupOf.length; m++) {
+                groups.get(groupOf[m]).add(input.getMutantId(m));
+            }
+            return new FeasibleSolution(groups);
+        }
+    }
+
+    /**
+     * Sorted tests of a mutant as map key.
+     */
+    private static final class Tests {
+        private final int[] tests;
+
+        Tests(int[] tests) {
+            this.tests = tests;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Tests other && Arrays.equals(tests, other.tests);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(tests);
+        }
+    }
+}
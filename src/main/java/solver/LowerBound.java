@@ -0,0 +1,55 @@
+package solver;
+
+import model.ConflictGraph;
+import model.IndexedInput;
+import model.ReachabilityMatrix;
+import model.SolverInput;
+
+/**
+ * Cheap lower bounds on the number of groups: the largest test clique of the {@link ConflictGraph}, and a counting
+ * bound for group size limits.
+ */
+public class LowerBound {
+    private LowerBound() {
+    }
+
+    public static int of(SolverInput input) {
+        final int M = input.reachabilityMatrix.mutants();
+        return Math.max(mostMutantsPerTest(input.reachabilityMatrix), counting(M, input.maxGroupSize, input.fixedGroupSize));
+    }
+
+    /**
+     * Bound over all mutants of an input, before it is split into partitions.
+     */
+    public static int of(IndexedInput input) {
+        int[] mutantsPerTest = new int[input.testCount];
+        int mostMutantsPerTest = input.size() > 0 ? 1 : 0;
+        for (int[] tests : input.mutantTests) {
+            for (int t : tests) {
+                mostMutantsPerTest = Math.max(mostMutantsPerTest, ++mutantsPerTest[t]);
+            }
+        }
+        return Math.max(mostMutantsPerTest, counting(input.size(), input.maximumSize, input.fixedSize));
+    }
+
+    public static int mostMutantsPerTest(ReachabilityMatrix R) {
+        int[] mutantsPerTest = new int[R.tests()];
+        int result = R.mutants() > 0 ? 1 : 0;
+        for (int m = 0; m < R.mutants(); m++) {
+            for (int t : R.testsOf(m)) {
+                result = Math.max(result, ++mutantsPerTest[t]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Every group holds at most the maximum group size, or the fixed group size, so at least this many groups are
+     * needed to hold all mutants.
+     */
+    public static int counting(int mutants, int maxGroupSize, int fixedGroupSize) {
+        final int capacity = SolverInput.capacity(maxGroupSize, fixedGroupSize);
+        if (mutants == 0) return 0;
+        return (int) ((mutants + (long) capacity - 1) / capacity);
+    }
+}
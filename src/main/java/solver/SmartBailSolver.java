@@ -0,0 +1,96 @@
+package solver;
+
+import model.FeasibleSolution;
+import model.SolverInput;
+import model.SolverMetrics;
+import model.SolverResult;
+import model.SolverStatus;
+import model.TimedSolverResult;
+import model.Timer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Implements the {@code smartBail} option of the input. Trivial inputs are grouped without a solver, otherwise the
+ * {@link DsaturSolver} heuristic runs first and the delegate is skipped when the heuristic already reaches the lower
+ * bound. Inputs without {@code smartBail} are passed to the delegate as is.
+ */
+public class SmartBailSolver implements Solver {
+    private final Solver solver;
+
+    public SmartBailSolver(Solver solver) {
+        this.solver = Objects.requireNonNull(solver);
+    }
+
+    @Override
+    public TimedSolverResult solve(SolverInput input) {
+        if (!input.smartBail) {
+            return solver.solve(input);
+        }
+
+        var trivial = solveTrivial(input);
+        if (trivial != null) {
+            return trivial;
+        }
+
+        var heuristic = new DsaturSolver().solve(input);
+        var heuristicResult = heuristic.getSolverResult();
+        if (heuristicResult.status == SolverStatus.OPTIMAL) {
+            System.out.printf("Smart bail: heuristic reached the lower bound of %s groups%n", heuristicResult.lowerBound);
+            return heuristic;
+        }
+
+        var result = solver.solve(input);
+        return new TimedSolverResult(
+                result.getSolverResult(),
+                Timer.aggregate(List.of(heuristic.getTimer(), result.getTimer())),
+                result.getMetrics()
+        );
+    }
+
+    /**
+     * Groups inputs without conflicts, where mutants only need to be split by group size, and inputs where every
+     * mutant conflicts with every other mutant, which need one group per mutant.
+     */
+    private static TimedSolverResult solveTrivial(SolverInput input) {
+        final long start = System.nanoTime();
+        var graph = input.getConflictGraph();
+        final int M = graph.mutants();
+        final long conflicts = graph.edges();
+
+        final boolean complete = graph.isComplete();
+        if (!complete && conflicts > 0) return null;
+
+        int groupSize = complete ? 1 : M;
+        if (input.maxGroupSize > 0) groupSize = Math.min(groupSize, input.maxGroupSize);
+        if (input.fixedGroupSize > 0) groupSize = Math.min(groupSize, input.fixedGroupSize);
+        groupSize = Math.max(1, groupSize);
+        // groups of a fixed size can only be formed without leftovers when the mutants divide evenly
+        if (input.fixedGroupSize > 1 && groupSize > 1 && (groupSize != input.fixedGroupSize || M % groupSize != 0)) {
+            return null;
+        }
+
+        List<List<String>> groups = new ArrayList<>();
+        for (int m = 0; m < M; m += groupSize) {
+            List<String> group = new ArrayList<>();
+            for (int i = m; i < Math.min(M, m + groupSize); i++) {
+                group.add(input.getMutantId(i));
+            }
+            groups.add(group);
+        }
+        System.out.printf("Smart bail: %s mutants %s, formed %s groups without solving%n",
+                M, complete ? "all overlap" : "do not overlap", groups.size());
+
+        var result = new SolverResult(SolverStatus.OPTIMAL, new FeasibleSolution(groups));
+        var metrics = new SolverMetrics();
+        metrics.mutants = M;
+        metrics.tests = graph.tests();
+        metrics.conflicts = conflicts;
+        metrics.groups = groups.size();
+        metrics.lowerBound = result.lowerBound;
+        metrics.updateDerived();
+        return new TimedSolverResult(result, new Timer(System.nanoTime() - start, 0, 0, 0, 0), List.of(metrics));
+    }
+}
@@ -0,0 +1,105 @@
+package solver;
+
+import com.google.gson.Gson;
+import model.SolverInput;
+import model.SolverResult;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+
+/**
+ * Persistent cache of solver results keyed by a hash of the solver input. Every entry is a JSON file in the cache
+ * directory, its last modified time is used to evict the least recently used entries once the directory exceeds the
+ * maximum size.
+ */
+public class SolutionCache {
+    private final File directory;
+    private final long maxSizeBytes;
+    private final Gson gson = new Gson();
+
+    public SolutionCache(File directory, long maxSizeBytes) {
+        if (directory.exists() ? !directory.isDirectory() : !directory.mkdirs()) {
+            throw new RuntimeException(String.format("Path '%s' cannot be used as cache directory", directory));
+        }
+        this.directory = directory;
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    public synchronized SolverResult get(String key) {
+        var file = entry(key);
+        if (!file.exists()) return null;
+        try (var reader = new FileReader(file)) {
+            var result = gson.fromJson(reader, SolverResult.class);
+            file.setLastModified(System.currentTimeMillis());
+            return result;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable cache entry " + file + ": " + e.getMessage());
+            file.delete();
+            return null;
+        }
+    }
+
+    public synchronized void put(String key, SolverResult result) {
+        if (result.solution == null) return;
+        try {
+            var temporary = File.createTempFile(key, ".tmp", directory);
+            try (var writer = new FileWriter(temporary)) {
+                gson.toJson(result, writer);
+            }
+            Files.move(temporary.toPath(), entry(key).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            evict();
+        } catch (IOException e) {
+            System.err.println("Failed to write cache entry " + key + ": " + e.getMessage());
+        }
+    }
+
+    private void evict() {
+        File[] entries = directory.listFiles((dir, name) -> name.endsWith(".json"));
+        if (entries == null) return;
+        long size = Arrays.stream(entries).mapToLong(File::length).sum();
+        Arrays.sort(entries, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < entries.length && size > maxSizeBytes; i++) {
+            size -= entries[i].length();
+            entries[i].delete();
+        }
+    }
+
+    private File entry(String key) {
+        return new File(directory, key + ".json");
+    }
+
+    /**
+     * Computes a canonical hash over everything that determines the solution: mutant ids, reached tests and group
+     * size constraints.
+     */
+    public static String key(SolverInput input) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            var R = input.reachabilityMatrix;
+            digest.update(ByteBuffer.allocate(16).putInt(R.mutants()).putInt(R.tests()).putInt(input.fixedGroupSize).putInt(input.maxGroupSize).array());
+            for (int m = 0; m < R.mutants(); m++) {
+                digest.update(input.getMutantId(m).getBytes(StandardCharsets.UTF_8));
+                int[] tests = R.testsOf(m);
+                var buffer = ByteBuffer.allocate(4 * (tests.length + 2)).putInt(-1).putInt(tests.length);
+                for (int t : tests) {
+                    buffer.putInt(t);
+                }
+                digest.update(buffer.array());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package solver;
+
+import model.Converter;
+import model.IndexedInput;
+import model.Partitioner;
+import model.SolverInput;
+import model.SplitSizeTuning;
+import model.TimedSolverResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * Picks a split size for an input. The input is first profiled to drop candidate sizes whose partitions would be too
+ * dense to model, then a few sample partitions of every remaining candidate are solved with a short time limit. The
+ * groups formed per sampled mutant are extrapolated to the whole input and the candidate expecting the fewest groups
+ * within the time budget wins, ties go to the smaller split size as it solves faster.
+ */
+public class SplitSizeTuner {
+    private static final int[] CANDIDATE_SPLIT_SIZES = {50, 100, 150, 200, 300, 500};
+    private static final int PROBE_PARTITIONS = 2;
+    private static final double PROBE_SECONDS = 5;
+    private static final double TUNING_SHARE_OF_BUDGET = 0.1;
+    private static final double MAX_CONFLICTS_PER_PARTITION = 200_000;
+
+    private final IntFunction<? extends Solver> solverFactory;
+    private final Partitioner partitioner;
+    private final int cores;
+    private final int minWorkersPerSolver;
+    private final double timeBudgetSeconds;
+
+    /**
+     * @param timeBudgetSeconds time budget of the actual solve, candidates expected to exceed it are only chosen when
+     *                          every candidate does, 0 means there is no budget
+     */
+    public SplitSizeTuner(IntFunction<? extends Solver> solverFactory, Partitioner partitioner, int cores,
+                          int minWorkersPerSolver, double timeBudgetSeconds) {
+        this.solverFactory = Objects.requireNonNull(solverFactory);
+        this.partitioner = Objects.requireNonNull(partitioner);
+        this.cores = Math.max(1, cores);
+        this.minWorkersPerSolver = Math.max(1, minWorkersPerSolver);
+        this.timeBudgetSeconds = Math.max(0, timeBudgetSeconds);
+    }
+
+    public SplitSizeTuning tune(IndexedInput input) {
+        var tuning = profile(input);
+        final int M = input.size();
+
+        List<Integer> candidates = new ArrayList<>();
+        for (int splitSize : CANDIDATE_SPLIT_SIZES) {
+            int size = Math.min(splitSize, M);
+            if (candidates.contains(size)) continue;
+            // the first candidate is always probed, so there is something to choose from
+            if (!candidates.isEmpty() && expectedConflicts(tuning, size) > MAX_CONFLICTS_PER_PARTITION) break;
+            candidates.add(size);
+        }
+        if (candidates.size() == 1) {
+            tuning.chosenSplitSize = candidates.get(0);
+            return tuning;
+        }
+
+        tuning.probeSeconds = timeBudgetSeconds > 0
+                ? Math.max(1, timeBudgetSeconds * TUNING_SHARE_OF_BUDGET / candidates.size())
+                : PROBE_SECONDS;
+        SplitSizeTuning.Probe best = null;
+        for (int splitSize : candidates) {
+            var probe = probe(input, splitSize, tuning.probeSeconds);
+            tuning.probes.add(probe);
+            System.out.println("Probed " + probe);
+            if (best == null || isBetter(probe, best)) {
+                best = probe;
+            }
+        }
+        tuning.chosenSplitSize = best.splitSize;
+        System.out.println("Chose split size " + tuning.chosenSplitSize);
+        return tuning;
+    }
+
+    private static boolean isBetter(SplitSizeTuning.Probe probe, SplitSizeTuning.Probe best) {
+        if (probe.withinBudget != best.withinBudget) return probe.withinBudget;
+        if (!probe.withinBudget) return probe.expectedSeconds < best.expectedSeconds;
+        return probe.expectedGroups < best.expectedGroups;
+    }
+
+    private SplitSizeTuning.Probe probe(IndexedInput input, int splitSize, double probeSeconds) {
+        final int M = input.size();
+        int[][] partitions = partitioner.partition(input, splitSize);
+
+        // partitions are sampled evenly over the list so the sample does not only contain the first or last ones
+        final int sampled = Math.min(PROBE_PARTITIONS, partitions.length);
+        List<SolverInput> sample = new ArrayList<>(sampled);
+        for (int i = 0; i < sampled; i++) {
+            sample.add(Converter.toSolverInput(input, partitions[(int) ((long) i * partitions.length / sampled)]));
+        }
+
+        var probe = new SplitSizeTuning.Probe();
+        probe.splitSize = splitSize;
+        probe.partitions = partitions.length;
+        probe.sampledPartitions = sampled;
+        probe.sampledMutants = sample.stream().mapToInt(s -> s.mutantIds.length).sum();
+
+        // the budget is wall clock time, every probe receives about probeSeconds of it
+        final int probeConcurrency = Math.max(1, Math.min(sampled, cores / minWorkersPerSolver));
+        long[] nanos = new long[sampled];
+        var solver = new SplitSolver(solverFactory, cores, minWorkersPerSolver, probeSeconds * Math.ceil((double) sampled / probeConcurrency));
+        TimedSolverResult result = solver.solve(sample, (index, partitionResult) -> nanos[index] = partitionResult.getTimer().getTotalDurationNanos());
+
+        probe.sampledGroups = result.getSolverResult().solution.getGroups().size();
+        probe.status = result.getSolverResult().status;
+        probe.sampledSeconds = Arrays.stream(nanos).sum() / 1e9;
+        probe.expectedGroups = (double) probe.sampledGroups * M / probe.sampledMutants;
+
+        final int concurrency = Math.max(1, Math.min(partitions.length, cores / minWorkersPerSolver));
+        probe.expectedSeconds = probe.sampledSeconds / sampled * Math.ceil((double) partitions.length / concurrency);
+        // probes that were not solved to optimality only predict the groups when partitions get as much time
+        probe.withinBudget = timeBudgetSeconds <= 0 || probe.expectedSeconds <= timeBudgetSeconds;
+        return probe;
+    }
+
+    /**
+     * Estimated number of conflicting pairs inside a partition of the given size, assuming conflicts are spread
+     * evenly over the input.
+     */
+    private static double expectedConflicts(SplitSizeTuning tuning, int splitSize) {
+        return tuning.density * splitSize * (splitSize - 1) / 2;
+    }
+
+    static SplitSizeTuning profile(IndexedInput input) {
+        final int M = input.size();
+        int[] mutantsPerTest = new int[input.testCount];
+        long reached = 0;
+        for (int[] tests : input.mutantTests) {
+            reached += tests.length;
+            for (int t : tests) {
+                mutantsPerTest[t]++;
+            }
+        }
+
+        int[] degrees = new int[M];
+        for (int m = 0; m < M; m++) {
+            long degree = 0;
+            for (int t : input.mutantTests[m]) {
+                degree += mutantsPerTest[t] - 1;
+            }
+            degrees[m] = (int) Math.min(M - 1, degree);
+        }
+        Arrays.sort(degrees);
+
+        var tuning = new SplitSizeTuning();
+        tuning.mutants = M;
+        tuning.tests = input.testCount;
+        tuning.averageTestsPerMutant = M == 0 ? 0 : (double) reached / M;
+        tuning.maxMutantsPerTest = Arrays.stream(mutantsPerTest).max().orElse(0);
+        if (M > 0) {
+            tuning.averageDegree = Arrays.stream(degrees).average().orElse(0);
+            tuning.medianDegree = degrees[M / 2];
+            tuning.p90Degree = degrees[(int) (M * 0.9)];
+            tuning.maxDegree = degrees[M - 1];
+        }
+        tuning.density = M <= 1 ? 0 : tuning.averageDegree / (M - 1);
+        return tuning;
+    }
+}
@@ -1,35 +1,102 @@
 package solver;
 
+import model.PartitionSolvedEvent;
 import model.SolverInput;
+import model.TimeBudget;
 import model.TimedSolverResult;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
 
 public class SplitSolver {
-    private final Solver solver;
+    private final IntFunction<? extends Solver> solverFactory;
+    private final int cores;
+    private final int minWorkersPerSolver;
+    private final double timeBudgetSeconds;
 
+    /**
+     * Solves all partitions sequentially using the same solver instance.
+     */
     public SplitSolver(Solver solver) {
-        this.solver = Objects.requireNonNull(solver);
+        Objects.requireNonNull(solver);
+        this.solverFactory = workers -> solver;
+        this.cores = 1;
+        this.minWorkersPerSolver = 1;
+        this.timeBudgetSeconds = 0;
+    }
+
+    /**
+     * Solves partitions concurrently on a bounded pool. The core budget is split between the number of partitions
+     * that are solved at the same time and the number of search workers each solver may use, every solver receives
+     * at least {@code minWorkersPerSolver} workers.
+     *
+     * @param solverFactory creates a fresh solver for every partition given the number of workers it may use
+     * @param cores total number of cores that may be used
+     * @param minWorkersPerSolver minimum number of workers assigned to a single solver
+     */
+    public SplitSolver(IntFunction<? extends Solver> solverFactory, int cores, int minWorkersPerSolver) {
+        this(solverFactory, cores, minWorkersPerSolver, 0);
+    }
+
+    /**
+     * @param timeBudgetSeconds overall time budget for solving all partitions, divided over the partitions by their
+     *                          estimated difficulty, 0 lets every solver use its own time limit
+     */
+    public SplitSolver(IntFunction<? extends Solver> solverFactory, int cores, int minWorkersPerSolver, double timeBudgetSeconds) {
+        this.solverFactory = Objects.requireNonNull(solverFactory);
+        this.cores = Math.max(1, cores);
+        this.minWorkersPerSolver = Math.max(1, minWorkersPerSolver);
+        this.timeBudgetSeconds = Math.max(0, timeBudgetSeconds);
     }
 
     public TimedSolverResult solve(List<SolverInput> inputs) {
+        return solve(inputs, (index, result) -> {});
+    }
+
+    /**
+     * @param listener receives the index and result of every partition as soon as it is solved, calls are never
+     *                 concurrent but may arrive in any order
+     */
+    public TimedSolverResult solve(List<SolverInput> inputs, BiConsumer<Integer, TimedSolverResult> listener) {
         if (inputs.size() > 1) {
             System.out.printf("Input was too large, it will be split over %s parts of ~%s mutants%n", inputs.size(), inputs.get(0).mutantIds.length);
         }
 
-        List<TimedSolverResult> results = new ArrayList<>(inputs.size());
-        for (var input : inputs) {
-            System.out.println("M: " + input.reachabilityMatrix.length);
-            System.out.println("T: " + input.reachabilityMatrix[0].length);
+        final int concurrency = Math.max(1, Math.min(inputs.size(), cores / minWorkersPerSolver));
+        final int workers = Math.max(minWorkersPerSolver, cores / concurrency);
 
-            var result = this.solver.solve(input);
-            System.out.println(result.getTimer());
-            results.add(result);
+        // hardest partitions are started first so they are not the ones left running at the end
+        double[] weights = inputs.stream().mapToDouble(TimeBudget::weight).toArray();
+        Integer[] order = new Integer[inputs.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> -weights[i]));
+        TimeBudget budget = timeBudgetSeconds > 0 ? new TimeBudget(timeBudgetSeconds, concurrency, Arrays.stream(weights).sum()) : null;
+
+        List<TimedSolverResult> results;
+        if (concurrency == 1) {
+            var solved = new TimedSolverResult[inputs.size()];
+            for (int i : order) {
+                solved[i] = solve(solverFactory.apply(workers), i, inputs.get(i), weights[i], budget, listener);
+            }
+            results = Arrays.asList(solved);
+        } else {
+            System.out.printf("Solving %s parts concurrently using %s workers each%n", concurrency, workers);
+            results = solveConcurrently(inputs, order, weights, budget, concurrency, workers, listener);
         }
 
-        var result = TimedSolverResult.aggregate(results);
+        var result = TimedSolverResult.aggregate(results, inputs.stream().mapToInt(input -> input.fixedGroupSize).max().orElse(0));
 
         if (inputs.size() > 1) {
             System.out.println("Aggregated result:");
@@ -39,4 +106,63 @@ public class SplitSolver {
         }
         return result;
     }
+
+    private List<TimedSolverResult> solveConcurrently(List<SolverInput> inputs, Integer[] order, double[] weights, TimeBudget budget,
+                                                      int concurrency, int workers, BiConsumer<Integer, TimedSolverResult> listener) {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<TimedSolverResult>> futures = new ArrayList<>(Collections.nCopies(inputs.size(), null));
+            for (int index : order) {
+                futures.set(index, executor.submit(() -> solve(solverFactory.apply(workers), index, inputs.get(index), weights[index], budget, listener)));
+            }
+
+            // futures are collected in input order so aggregation does not depend on completion order
+            List<TimedSolverResult> results = new ArrayList<>(inputs.size());
+            for (var future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while solving split input", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to solve split input", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static TimedSolverResult solve(Solver solver, int index, SolverInput input, double weight, TimeBudget budget,
+                                           BiConsumer<Integer, TimedSolverResult> listener) {
+        var event = new PartitionSolvedEvent();
+        event.begin();
+        TimedSolverResult result;
+        if (budget != null) {
+            input.timeAllocation = budget.allocate(weight);
+            try {
+                result = solver.solve(input);
+            } finally {
+                input.timeAllocation.release();
+            }
+        } else {
+            result = solver.solve(input);
+        }
+        input.releaseConflictGraph();
+        for (var metrics : result.getMetrics()) {
+            metrics.partition = index;
+        }
+        if (event.shouldCommit() && result.getMetrics().size() == 1) {
+            event.set(result.getMetrics().get(0), result.getSolverResult().status);
+            event.commit();
+        }
+        synchronized (System.out) {
+            System.out.println("M: " + input.reachabilityMatrix.mutants());
+            System.out.println("T: " + input.reachabilityMatrix.tests());
+            System.out.println(result.getTimer());
+        }
+        synchronized (listener) {
+            listener.accept(index, result);
+        }
+        return result;
+    }
 }
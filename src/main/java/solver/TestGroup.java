@@ -0,0 +1,40 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Group of mutants together with the union of the (interned) tests they reach.
+ */
+class TestGroup {
+    final List<Integer> mutants = new ArrayList<>();
+    final BitSet tests = new BitSet();
+
+    boolean overlaps(int[] mutantTests) {
+        for (int t : mutantTests) {
+            if (tests.get(t)) return true;
+        }
+        return false;
+    }
+
+    boolean overlaps(TestGroup other) {
+        return tests.intersects(other.tests);
+    }
+
+    void add(int mutant, int[] mutantTests) {
+        mutants.add(mutant);
+        for (int t : mutantTests) {
+            tests.set(t);
+        }
+    }
+
+    void addAll(TestGroup other) {
+        mutants.addAll(other.mutants);
+        tests.or(other.tests);
+    }
+
+    int size() {
+        return mutants.size();
+    }
+}